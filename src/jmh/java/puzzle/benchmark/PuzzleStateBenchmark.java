@@ -0,0 +1,93 @@
+package puzzle.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.model.Position;
+import puzzle.model.PuzzleState;
+import puzzle.solver.Node;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the hot paths of {@link PuzzleState} and {@link Node} on a mid-game state.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PuzzleStateBenchmark {
+
+    private PuzzleState state;
+    private TwoPhaseMove<Position> legalMove;
+    private TwoPhaseMove<Position> illegalMove;
+
+    /**
+     * Plays the first moves of the solution in the README to reach a mid-game state.
+     */
+    @Setup
+    public void setUp() {
+        state = new PuzzleState();
+        state.makeMove(move(1, 4, 1, 3));
+        state.makeMove(move(1, 3, 1, 2));
+        state.makeMove(move(1, 2, 0, 2));
+        state.makeMove(move(1, 0, 1, 1));
+        legalMove = move(1, 1, 1, 2);
+        illegalMove = move(0, 0, 0, 1);
+    }
+
+    private static TwoPhaseMove<Position> move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new TwoPhaseMove<>(new Position(fromRow, fromCol), new Position(toRow, toCol));
+    }
+
+    @Benchmark
+    public Set<TwoPhaseMove<Position>> getLegalMoves() {
+        return state.getLegalMoves();
+    }
+
+    @Benchmark
+    public boolean isLegalMove() {
+        return state.isLegalMove(legalMove);
+    }
+
+    @Benchmark
+    public boolean isIllegalMove() {
+        return state.isLegalMove(illegalMove);
+    }
+
+    /**
+     * Makes a move and takes it back, so that every invocation starts from the same state.
+     */
+    @Benchmark
+    public PuzzleState makeMove() {
+        state.makeMove(legalMove);
+        state.undoMove(legalMove);
+        return state;
+    }
+
+    @Benchmark
+    public PuzzleState cloneState() {
+        return state.clone();
+    }
+
+    /**
+     * Creates a node, which computes the legal moves, and its first child, which clones the state.
+     */
+    @Benchmark
+    public Optional<Node<TwoPhaseMove<Position>>> nextChild() {
+        return new Node<TwoPhaseMove<Position>>(state).nextChild();
+    }
+
+}
@@ -0,0 +1,37 @@
+package puzzle.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.model.Position;
+import puzzle.model.PuzzleState;
+import puzzle.solver.BreadthFirstSearch;
+import puzzle.solver.Node;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a full solve of the stock puzzle.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SolverBenchmark {
+
+    @Benchmark
+    public Optional<Node<TwoPhaseMove<Position>>> breadthFirstSearch() {
+        return new BreadthFirstSearch<TwoPhaseMove<Position>>().solve(new PuzzleState());
+    }
+
+}
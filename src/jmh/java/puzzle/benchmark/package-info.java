@@ -0,0 +1,5 @@
+/**
+ * JMH microbenchmarks of the puzzle model and the solvers. The benchmarks are
+ * only compiled with the {@code benchmark} Maven profile.
+ */
+package puzzle.benchmark;
@@ -0,0 +1,93 @@
+package puzzle;
+
+import java.util.List;
+
+/**
+ * Represents the state of a puzzle that can be encoded into a single
+ * {@code long} value. Solvers use the code instead of the state object itself
+ * to keep track of the states already visited.
+ *
+ * <p>A puzzle may have symmetries that map every state to an equivalent one,
+ * i.e., to a state from which the puzzle can be solved by the same number of
+ * moves. Solvers that only need the distances to the goal key their tables on
+ * the {@linkplain #canonicalCode() canonical code}, which is shared by all of
+ * the equivalent states, so they store and expand only one state of each
+ * class of equivalent states.
+ *
+ * @param <T> represents the moves that can be applied to the states
+ */
+public interface EncodableState<T> extends State<T> {
+
+    /**
+     * {@return the code of the state} Two states of the same puzzle must have
+     * the same code if and only if they are equal.
+     */
+    long encode();
+
+    /**
+     * Returns the state of the same puzzle whose code is the one specified,
+     * i.e., the inverse of {@link #encode()}. Solvers that keep the states on
+     * disk store only their codes, and decode them when they are expanded.
+     * By default, decoding is not supported.
+     *
+     * @param code the code of a state of the puzzle
+     * @return the state whose code is the one specified
+     * @throws IllegalArgumentException if the code is not the code of a state
+     * @throws UnsupportedOperationException if the states cannot be decoded
+     */
+    default EncodableState<T> decode(long code) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the code of the state that the move specified would create,
+     * without changing this state. Searches use it to check whether a child
+     * is new before they create its state. By default, the move is applied to
+     * a copy of the state, which states should avoid by computing the code
+     * directly.
+     *
+     * @param move a legal move of the state
+     * @return the code of the state created by the move
+     */
+    @SuppressWarnings("unchecked")
+    default long encodeAfter(T move) {
+        var child = (EncodableState<T>) clone();
+        child.makeMove(move);
+        return child.encode();
+    }
+
+    /**
+     * {@return the canonical code of the state} Two states of the same puzzle
+     * must have the same canonical code if and only if they are equivalent.
+     * By default, the canonical code is the code of the state, i.e., no
+     * states are equivalent.
+     */
+    default long canonicalCode() {
+        return encode();
+    }
+
+    /**
+     * Returns the canonical code of the state that the move specified would
+     * create, without changing this state, like {@link #encodeAfter(Object)}.
+     * By default, the move is applied to a copy of the state, which states
+     * should avoid by computing the code directly.
+     *
+     * @param move a legal move of the state
+     * @return the canonical code of the state created by the move
+     */
+    @SuppressWarnings("unchecked")
+    default long canonicalCodeAfter(T move) {
+        var child = (EncodableState<T>) clone();
+        child.makeMove(move);
+        return child.canonicalCode();
+    }
+
+    /**
+     * {@return the states equivalent to this state, including this state}
+     * By default, the list contains only this state.
+     */
+    default List<? extends EncodableState<T>> equivalentStates() {
+        return List.of(this);
+    }
+
+}
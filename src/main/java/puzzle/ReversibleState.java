@@ -0,0 +1,21 @@
+package puzzle;
+
+/**
+ * Represents the state of a puzzle whose moves can be taken back. Solvers can
+ * then explore the search space by making and undoing moves on a single state
+ * instance, instead of cloning the state for each child.
+ *
+ * @param <T> represents the moves that can be applied to the states
+ */
+public interface ReversibleState<T> extends State<T> {
+
+    /**
+     * Takes back the move provided. This method should be called if and only
+     * if the move provided was the last move applied to the state by
+     * {@link #makeMove(Object)} and has not been taken back yet.
+     *
+     * @param move represents the move to be taken back
+     */
+    void undoMove(T move);
+
+}
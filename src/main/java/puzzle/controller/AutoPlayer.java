@@ -0,0 +1,167 @@
+package puzzle.controller;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.util.Duration;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.model.Position;
+import puzzle.model.PuzzleState;
+
+import java.util.List;
+
+/**
+ * The {@code AutoPlayer} class plays the moves of a solution on the board, one move per step of a
+ * {@link Timeline}. Each step makes its move on the model, and brings the {@link ObservableBoard}
+ * up to date with a single {@link ObservableBoard#update update}, so only the squares changed by
+ * the move are set, and they are rendered together in the next pulse. The steps run on the JavaFX
+ * application thread, but each one takes a few microseconds, thus the user interface stays
+ * responsive at any speed.
+ *
+ * <p>The speed is the rate of the timeline, which is doubled by {@link #faster()} and halved by
+ * {@link #slower()}, and {@link #skipToEnd()} makes the remaining moves at once with a single
+ * update of the board.</p>
+ *
+ * <p>The methods of the class must be called on the JavaFX application thread.</p>
+ */
+public final class AutoPlayer {
+
+    /**
+     * The time between two moves at the normal speed.
+     */
+    public static final Duration STEP_DURATION = Duration.millis(400);
+
+    /**
+     * The lowest speed relative to the normal speed.
+     */
+    public static final double MIN_RATE = 0.25;
+
+    /**
+     * The highest speed relative to the normal speed.
+     */
+    public static final double MAX_RATE = 64;
+
+    private final PuzzleState model;
+
+    private final ObservableBoard squares;
+
+    private final Timeline timeline;
+
+    private List<TwoPhaseMove<Position>> moves = List.of();
+
+    private int next;
+
+    private Runnable onFinished;
+
+    /**
+     * Creates an {@code AutoPlayer} object that plays on the model and the board specified.
+     *
+     * @param model the model the moves are made on
+     * @param squares the board that shows the model
+     */
+    public AutoPlayer(PuzzleState model, ObservableBoard squares) {
+        this.model = model;
+        this.squares = squares;
+        this.timeline = new Timeline(new KeyFrame(STEP_DURATION, event -> step()));
+        timeline.setCycleCount(Animation.INDEFINITE);
+    }
+
+    /**
+     * Starts playing the moves specified from the current state of the model. A playback in
+     * progress is stopped first.
+     *
+     * @param moves the moves to play, which must be legal in turn from the current state
+     * @param onFinished the action run when the last move has been played, but not when the
+     *                   playback is stopped
+     */
+    public void play(List<TwoPhaseMove<Position>> moves, Runnable onFinished) {
+        stop();
+        this.moves = List.copyOf(moves);
+        this.next = 0;
+        this.onFinished = onFinished;
+        if (this.moves.isEmpty()) {
+            finish();
+        } else {
+            timeline.playFromStart();
+        }
+    }
+
+    /**
+     * {@return whether a playback is in progress}
+     */
+    public boolean isPlaying() {
+        return next < moves.size();
+    }
+
+    /**
+     * Stops the playback, if any. The moves already played are kept.
+     */
+    public void stop() {
+        timeline.stop();
+        moves = List.of();
+        next = 0;
+        onFinished = null;
+    }
+
+    /**
+     * Plays the remaining moves at once, and shows the final state with a single update of the
+     * board.
+     */
+    public void skipToEnd() {
+        if (!isPlaying()) {
+            return;
+        }
+        timeline.stop();
+        while (next < moves.size()) {
+            model.makeMove(moves.get(next++));
+        }
+        squares.update(model.snapshot());
+        finish();
+    }
+
+    /**
+     * Doubles the speed, up to {@link #MAX_RATE}.
+     *
+     * @return the new speed relative to the normal speed
+     */
+    public double faster() {
+        timeline.setRate(Math.min(MAX_RATE, timeline.getRate() * 2));
+        return timeline.getRate();
+    }
+
+    /**
+     * Halves the speed, down to {@link #MIN_RATE}.
+     *
+     * @return the new speed relative to the normal speed
+     */
+    public double slower() {
+        timeline.setRate(Math.max(MIN_RATE, timeline.getRate() / 2));
+        return timeline.getRate();
+    }
+
+    /**
+     * Plays the next move.
+     */
+    private void step() {
+        if (!isPlaying()) {
+            return;
+        }
+        model.makeMove(moves.get(next++));
+        squares.update(model.snapshot());
+        if (!isPlaying()) {
+            timeline.stop();
+            finish();
+        }
+    }
+
+    private void finish() {
+        var action = onFinished;
+        moves = List.of();
+        next = 0;
+        onFinished = null;
+        if (action != null) {
+            action.run();
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package puzzle.controller;
+
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import puzzle.model.Position;
+import puzzle.model.Square;
+
+import java.util.function.Consumer;
+
+/**
+ * The {@code BoardRenderer} interface draws an {@link ObservableBoard}, keeps the drawing up to
+ * date with the squares of the board, and reports the clicks on its cells.
+ *
+ * <p>There are two renderers:</p>
+ * <ul>
+ * <li>{@link SceneGraphBoardRenderer}, which builds one node per cell and is styled by the style
+ * sheet of the scene, and</li>
+ * <li>{@link CanvasBoardRenderer}, which draws the whole board on a single canvas, repaints only
+ * the cells that change, and finds the cell of a click arithmetically.</li>
+ * </ul>
+ *
+ * @see #create(ObservableBoard)
+ */
+public interface BoardRenderer {
+
+    /**
+     * The system property that selects the renderer created by {@link #create(ObservableBoard)}:
+     * {@code scene} or {@code canvas}.
+     */
+    String RENDERER_PROPERTY = "puzzle.renderer";
+
+    /**
+     * The largest number of cells of a board drawn by {@link SceneGraphBoardRenderer} when the
+     * {@value #RENDERER_PROPERTY} system property is not set.
+     */
+    int MAX_SCENE_GRAPH_CELLS = 25;
+
+    /**
+     * {@return the node that shows the board}
+     */
+    Node getNode();
+
+    /**
+     * Sets the handler of the clicks on the cells of the board.
+     *
+     * @param handler the handler, which receives the position of the cell clicked
+     */
+    void setOnCellClicked(Consumer<Position> handler);
+
+    /**
+     * Highlights the cell at the position specified.
+     *
+     * @param position the position of the cell
+     */
+    void showSelection(Position position);
+
+    /**
+     * Removes the highlight from the cell at the position specified.
+     *
+     * @param position the position of the cell
+     */
+    void hideSelection(Position position);
+
+    /**
+     * Creates the renderer selected by the {@value #RENDERER_PROPERTY} system property. If the
+     * property is not set, then the boards with at most {@value #MAX_SCENE_GRAPH_CELLS} cells,
+     * such as the stock board, are drawn by a {@link SceneGraphBoardRenderer}, and the larger
+     * boards by a {@link CanvasBoardRenderer}.
+     *
+     * @param squares the board to draw
+     * @return the renderer
+     * @throws IllegalArgumentException if the property names an unknown renderer
+     */
+    static BoardRenderer create(ObservableBoard squares) {
+        var spec = squares.getSnapshot().spec();
+        var renderer = System.getProperty(RENDERER_PROPERTY, "");
+        return switch (renderer) {
+            case "scene" -> new SceneGraphBoardRenderer(squares);
+            case "canvas" -> new CanvasBoardRenderer(squares);
+            case "" -> spec.rows() * spec.cols() <= MAX_SCENE_GRAPH_CELLS
+                    ? new SceneGraphBoardRenderer(squares)
+                    : new CanvasBoardRenderer(squares);
+            default -> throw new IllegalArgumentException("Unknown renderer: " + renderer);
+        };
+    }
+
+    /**
+     * {@return the paint of the piece on a square}
+     *
+     * @param square the square
+     */
+    static Paint paintOf(Square square) {
+        return switch (square) {
+            case NONE -> Color.TRANSPARENT;
+            case RED -> Color.RED;
+            case BLUE -> Color.BLUE;
+            case BLOCK -> Color.BLACK;
+        };
+    }
+
+}
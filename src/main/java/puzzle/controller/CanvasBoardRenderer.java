@@ -0,0 +1,179 @@
+package puzzle.controller;
+
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import puzzle.model.Position;
+
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+/**
+ * The {@code CanvasBoardRenderer} class draws a board on a single {@link Canvas}. The cells are
+ * squares of the same size laid out without gaps, thus the cell under the mouse is found by
+ * dividing the coordinates of the mouse by the size of a cell, and no node is created per cell.
+ *
+ * <p>Each square of the {@link ObservableBoard} has a listener that repaints only the cell of the
+ * square, so an update of the board repaints only the cells it changes. The cells are drawn like
+ * those of {@link SceneGraphBoardRenderer}: a border, a piece, a light background under the
+ * mouse and a thick border when highlighted.</p>
+ */
+public class CanvasBoardRenderer implements BoardRenderer {
+
+    /**
+     * The size of the larger side of the canvas, unless the cells would be smaller than
+     * {@link #MIN_CELL_SIZE} or larger than {@link #MAX_CELL_SIZE}.
+     */
+    private static final double TARGET_SIZE = 580;
+
+    private static final double MIN_CELL_SIZE = 8;
+
+    private static final double MAX_CELL_SIZE = 110;
+
+    /**
+     * The radius of a piece relative to the size of a cell.
+     */
+    private static final double PIECE_RATIO = 0.4;
+
+    private static final double SELECTED_BORDER_WIDTH = 5;
+
+    private static final Color BORDER_COLOR = Color.BLACK;
+
+    private static final Color SELECTED_BORDER_COLOR = Color.SLATEGRAY;
+
+    private static final Color HOVER_COLOR = Color.WHITESMOKE;
+
+    private final ObservableBoard squares;
+
+    private final int rows;
+
+    private final int cols;
+
+    private final double cellSize;
+
+    private final Canvas canvas;
+
+    private final GraphicsContext graphics;
+
+    /**
+     * The highlighted cells, indexed by {@code row * cols + col}.
+     */
+    private final BitSet selected = new BitSet();
+
+    /**
+     * The cell under the mouse, or {@code null} if there is none.
+     */
+    private Position hovered;
+
+    private Consumer<Position> onCellClicked = position -> {};
+
+    /**
+     * Creates a {@code CanvasBoardRenderer} object that draws the board specified.
+     *
+     * @param squares the board to draw
+     */
+    public CanvasBoardRenderer(ObservableBoard squares) {
+        var spec = squares.getSnapshot().spec();
+        this.squares = squares;
+        this.rows = spec.rows();
+        this.cols = spec.cols();
+        this.cellSize = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, TARGET_SIZE / Math.max(rows, cols)));
+        this.canvas = new Canvas(cols * cellSize, rows * cellSize);
+        this.graphics = canvas.getGraphicsContext2D();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                var position = new Position(i, j);
+                squares.squareProperty(i, j).addListener((observable, oldSquare, newSquare) -> paintCell(position));
+                paintCell(position);
+            }
+        }
+        canvas.setOnMouseClicked(event -> {
+            var position = cellAt(event);
+            if (position != null) {
+                onCellClicked.accept(position);
+            }
+        });
+        canvas.setOnMouseMoved(event -> setHovered(cellAt(event)));
+        canvas.setOnMouseExited(event -> setHovered(null));
+    }
+
+    /**
+     * {@return the position of the cell under the mouse, or {@code null} if the mouse is outside of
+     * the cells}
+     */
+    private Position cellAt(MouseEvent event) {
+        int row = (int) Math.floor(event.getY() / cellSize);
+        int col = (int) Math.floor(event.getX() / cellSize);
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            return null;
+        }
+        return new Position(row, col);
+    }
+
+    private void setHovered(Position position) {
+        if (position == null ? hovered == null : position.equals(hovered)) {
+            return;
+        }
+        var previous = hovered;
+        hovered = position;
+        if (previous != null) {
+            paintCell(previous);
+        }
+        if (position != null) {
+            paintCell(position);
+        }
+    }
+
+    /**
+     * Repaints the cell at the position specified.
+     *
+     * @param position the position of the cell
+     */
+    private void paintCell(Position position) {
+        double x = position.col() * cellSize;
+        double y = position.row() * cellSize;
+        graphics.clearRect(x, y, cellSize, cellSize);
+        if (position.equals(hovered)) {
+            graphics.setFill(HOVER_COLOR);
+            graphics.fillRect(x, y, cellSize, cellSize);
+        }
+        graphics.setFill(BoardRenderer.paintOf(squares.squareProperty(position.row(), position.col()).get()));
+        double radius = cellSize * PIECE_RATIO;
+        graphics.fillOval(x + cellSize / 2 - radius, y + cellSize / 2 - radius, 2 * radius, 2 * radius);
+        if (selected.get(position.row() * cols + position.col())) {
+            double width = Math.min(SELECTED_BORDER_WIDTH, cellSize / 4);
+            graphics.setStroke(SELECTED_BORDER_COLOR);
+            graphics.setLineWidth(width);
+            graphics.strokeRect(x + width / 2, y + width / 2, cellSize - width, cellSize - width);
+        } else {
+            graphics.setStroke(BORDER_COLOR);
+            graphics.setLineWidth(1);
+            graphics.strokeRect(x + 0.5, y + 0.5, cellSize - 1, cellSize - 1);
+        }
+    }
+
+    @Override
+    public Node getNode() {
+        return canvas;
+    }
+
+    @Override
+    public void setOnCellClicked(Consumer<Position> handler) {
+        onCellClicked = handler;
+    }
+
+    @Override
+    public void showSelection(Position position) {
+        selected.set(position.row() * cols + position.col());
+        paintCell(position);
+    }
+
+    @Override
+    public void hideSelection(Position position) {
+        selected.clear(position.row() * cols + position.col());
+        paintCell(position);
+    }
+
+}
@@ -0,0 +1,75 @@
+package puzzle.controller;
+
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import puzzle.model.Position;
+import puzzle.model.PuzzleSnapshot;
+import puzzle.model.Square;
+
+/**
+ * The {@code ObservableBoard} class is the JavaFX view of the squares of a board. It holds one
+ * observable property per square, and is brought up to date by {@link #update(PuzzleSnapshot)},
+ * which only sets the properties of the squares that have changed since the previous snapshot.
+ *
+ * @see PuzzleSnapshot
+ */
+public class ObservableBoard {
+
+    private final ReadOnlyObjectWrapper<Square>[][] squares;
+
+    private PuzzleSnapshot snapshot;
+
+    /**
+     * Creates an {@code ObservableBoard} object showing the snapshot specified.
+     *
+     * @param snapshot the snapshot to show
+     */
+    @SuppressWarnings("unchecked")
+    public ObservableBoard(PuzzleSnapshot snapshot) {
+        var spec = snapshot.spec();
+        var state = snapshot.toState();
+        squares = (ReadOnlyObjectWrapper<Square>[][]) new ReadOnlyObjectWrapper<?>[spec.rows()][spec.cols()];
+        for (int i = 0; i < spec.rows(); i++) {
+            for (int j = 0; j < spec.cols(); j++) {
+                squares[i][j] = new ReadOnlyObjectWrapper<>(state.getSquare(new Position(i, j)));
+            }
+        }
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Returns the property representing the square at the specified position on the board.
+     *
+     * @param i the row index of the square
+     * @param j the column index of the square
+     * @return the {@code ReadOnlyObjectProperty} representing the square
+     */
+    public ReadOnlyObjectProperty<Square> squareProperty(int i, int j) {
+        return squares[i][j].getReadOnlyProperty();
+    }
+
+    /**
+     * {@return the snapshot shown}
+     */
+    public PuzzleSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Shows the snapshot specified, which must be of the same board as the snapshot shown. Only
+     * the properties of the squares that differ between the two snapshots are set.
+     *
+     * @param next the snapshot to show
+     */
+    public void update(PuzzleSnapshot next) {
+        var changed = snapshot.changedPositions(next);
+        if (!changed.isEmpty()) {
+            var state = next.toState();
+            for (var position : changed) {
+                squares[position.row()][position.col()].set(state.getSquare(position));
+            }
+        }
+        snapshot = next;
+    }
+
+}
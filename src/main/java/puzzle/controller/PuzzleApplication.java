@@ -21,6 +21,8 @@ import java.io.IOException;
  */
 public class PuzzleApplication extends Application {
 
+    private PuzzleController controller;
+
     /**
      * Starts the JavaFX application by setting up the primary stage.
      *
@@ -34,7 +36,9 @@ public class PuzzleApplication extends Application {
      */
 
     public void start(final Stage stage) throws IOException {
-        Parent root = FXMLLoader.load(getClass().getResource("/ui.fxml"));
+        var loader = new FXMLLoader(getClass().getResource("/ui.fxml"));
+        Parent root = loader.load();
+        controller = loader.getController();
         stage.setTitle("JavaFX Board Game Example");
         Scene scene = new Scene(root);
         stage.setScene(scene);
@@ -42,4 +46,14 @@ public class PuzzleApplication extends Application {
         stage.show();
     }
 
+    /**
+     * Stops the background work of the controller when the application exits.
+     */
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.close();
+        }
+    }
+
 }
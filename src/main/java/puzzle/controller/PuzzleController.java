@@ -1,20 +1,15 @@
 package puzzle.controller;
 
-import javafx.beans.binding.ObjectBinding;
-import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.application.Platform;
 import javafx.beans.value.ObservableValue;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
-import javafx.scene.input.MouseEvent;
-import javafx.scene.layout.GridPane;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.StackPane;
-import javafx.scene.paint.Color;
-import javafx.scene.paint.Paint;
-import javafx.scene.shape.Circle;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.model.HintEngine;
 import puzzle.model.Position;
 import puzzle.model.PuzzleState;
-import puzzle.model.Square;
-import puzzle.util.PuzzleMoveSelector;
 import org.tinylog.Logger;
 
 
@@ -23,98 +18,185 @@ import org.tinylog.Logger;
  * It handles user inputs, updates the game state, and manages the display of the game board.
  *
  * @see javafx.fxml.FXML
- * @see javafx.scene.layout.GridPane
+ * @see BoardRenderer
  * @see puzzle.model.PuzzleState
- * @see puzzle.util.PuzzleMoveSelector
+ * @see PuzzleMoveSelector
  */
 
 public class PuzzleController {
 
     @FXML
-    private GridPane board;
+    private StackPane root;
 
     private PuzzleState model;
 
+    private ObservableBoard squares;
+
     private PuzzleMoveSelector selector;
 
-    private static final int CIRCLE_RADIUS = 50;
+    private BoardRenderer renderer;
+
+    private final HintEngine hints = new HintEngine();
+
+    private boolean hintsShown;
+
+    /**
+     * The position of the square highlighted as the hint, or {@code null} if no hint is shown.
+     */
+    private Position hint;
+
+    private AutoPlayer autoPlayer;
 
     /**
-     * Initializes the game controller. This method sets up the game state, the move selector,
-     * and the game board UI components.
+     * Whether the solution for auto-play is being searched for.
+     */
+    private boolean solving;
+
+    /**
+     * Initializes the game controller. This method sets up the game state on the board returned
+     * by {@link puzzle.model.BoardSpec#defaultSpec()}, the move selector, and the renderer of the
+     * board returned by {@link BoardRenderer#create(ObservableBoard)}.
      */
     @FXML
     private void initialize() {
         model = new PuzzleState();
         selector = new PuzzleMoveSelector(model);
-
-        for (var i = 0; i < board.getRowCount(); i++) {
-            for (var j = 0; j < board.getColumnCount(); j++) {
-                var square = createSquare(i, j);
-                board.add(square, j, i);
-            }
-        }
+        squares = new ObservableBoard(model.snapshot());
+        autoPlayer = new AutoPlayer(model, squares);
+        renderer = BoardRenderer.create(squares);
+        renderer.setOnCellClicked(this::handleCellClick);
+        root.getChildren().add(renderer.getNode());
         selector.phaseProperty().addListener(this::showSelectionPhaseChange);
+        root.setFocusTraversable(true);
+        root.setOnKeyPressed(this::handleKeyPress);
+        Platform.runLater(root::requestFocus);
     }
 
     /**
-     * Creates a square at the specified position on the game board.
+     * Handles clicks on the cells of the game board.
      *
-     * @param i the row index
-     * @param j the column index
-     * @return the {@code StackPane} representing the square
+     * @param position the position of the cell clicked
      */
+    private void handleCellClick(Position position) {
+        Logger.info("Click on square ({},{})", position.row(), position.col());
+        if (autoPlayer.isPlaying() || solving) {
+            return;
+        }
 
-    private StackPane createSquare(int i, int j) {
-        var square = new StackPane();
-        square.getStyleClass().add("square");
-        var piece = new Circle(CIRCLE_RADIUS);
-        piece.fillProperty().bind(createSquareBinding(model.squareProperty(i, j)));
-        square.getChildren().add(piece);
-        square.setOnMouseClicked(this::handleMouseClick);
-        return square;
+        clearHint();
+        selector.select(position);
+        if (selector.isReadyToMove()) {
+            selector.makeMove();
+            squares.update(model.snapshot());
+        }
+        if (hintsShown && selector.getPhase() == PuzzleMoveSelector.Phase.SELECT_FROM) {
+            requestHint();
+        }
+        handleGameCompletion();
     }
 
     /**
-     * Handles mouse click events on the game board squares.
+     * Handles key press events. The {@code H} key toggles showing the best next move, and the
+     * {@code A} key starts or stops auto-play. During auto-play, the {@code +} and {@code -} keys
+     * change the speed, and the {@code End} key skips to the end of the solution.
      *
-     * @param event the {@code MouseEvent} representing the click event
+     * @param event the {@code KeyEvent} representing the key press
      */
-    @FXML
-    private void handleMouseClick(MouseEvent event) {
-        var square = (StackPane) event.getSource();
-        var row = GridPane.getRowIndex(square);
-        var col = GridPane.getColumnIndex(square);
-        Logger.info("Click on square ({},{})", row, col);
-
-        selector.select(new Position(row, col));
-        if (selector.isReadyToMove()) {
-            selector.makeMove();
+    private void handleKeyPress(KeyEvent event) {
+        switch (event.getCode()) {
+            case H -> {
+                hintsShown = !hintsShown;
+                Logger.info("Hints {}", hintsShown ? "on" : "off");
+                if (autoPlayer.isPlaying() || solving) {
+                    return;
+                }
+                if (hintsShown) {
+                    requestHint();
+                } else {
+                    hints.cancel();
+                    clearHint();
+                }
+            }
+            case A -> toggleAutoPlay();
+            case PLUS, ADD, EQUALS -> Logger.info("Auto-play speed {}", autoPlayer.faster());
+            case MINUS, SUBTRACT -> Logger.info("Auto-play speed {}", autoPlayer.slower());
+            case END -> autoPlayer.skipToEnd();
+            default -> {}
         }
-        handleGameCompletion();
     }
 
     /**
-     * Creates a binding for the color property of a square based on its state.
-     *
-     * @param squareProperty the property representing the state of the square
-     * @return the {@code ObjectBinding<Paint>} for the square's color
+     * Starts auto-play, or stops it if it is in progress. The solution is searched for off the
+     * JavaFX application thread, and is then played by the {@link AutoPlayer}.
      */
-    private ObjectBinding<Paint> createSquareBinding(ReadOnlyObjectProperty<Square> squareProperty) {
-        return new ObjectBinding<Paint>() {
-            {
-                super.bind(squareProperty);
+    private void toggleAutoPlay() {
+        if (autoPlayer.isPlaying() || solving) {
+            Logger.info("Auto-play stopped");
+            hints.cancel();
+            autoPlayer.stop();
+            solving = false;
+            if (hintsShown) {
+                requestHint();
             }
-            @Override
-            protected Paint computeValue() {
-                return switch (squareProperty.get()) {
-                    case NONE -> Color.TRANSPARENT;
-                    case RED -> Color.RED;
-                    case BLUE -> Color.BLUE;
-                    case BLOCK -> Color.BLACK;
-                };
+            return;
+        }
+        if (model.isSolved()) {
+            return;
+        }
+        Logger.info("Auto-play started");
+        if (selector.getPhase() == PuzzleMoveSelector.Phase.SELECT_TO) {
+            hideSelection(selector.getFrom());
+        }
+        selector.reset();
+        clearHint();
+        solving = true;
+        hints.requestSolution(model).thenAccept(moves -> Platform.runLater(() -> {
+            if (!solving) {
+                return;
             }
-        };
+            solving = false;
+            moves.ifPresentOrElse(
+                    solution -> autoPlayer.play(solution, () -> Platform.runLater(this::handleGameCompletion)),
+                    () -> Logger.warn("No solution found"));
+        }));
+    }
+
+    /**
+     * Requests the best next move of the current state from the hint engine, and highlights the
+     * square to move from when it arrives. A hint found without a search is shown at once.
+     */
+    private void requestHint() {
+        hints.requestHint(model).thenAccept(move -> {
+            if (Platform.isFxApplicationThread()) {
+                showHint(move.orElse(null));
+            } else {
+                Platform.runLater(() -> showHint(move.orElse(null)));
+            }
+        });
+    }
+
+    /**
+     * Highlights the square to move from of the move specified.
+     *
+     * @param move the hint, or {@code null} if there is none
+     */
+    private void showHint(TwoPhaseMove<Position> move) {
+        clearHint();
+        if (move != null && hintsShown && selector.getPhase() == PuzzleMoveSelector.Phase.SELECT_FROM
+                && !autoPlayer.isPlaying() && !solving) {
+            hint = move.from();
+            showSelection(hint);
+        }
+    }
+
+    /**
+     * Removes the highlight of the hint, if any.
+     */
+    private void clearHint() {
+        if (hint != null) {
+            hideSelection(hint);
+            hint = null;
+        }
     }
 
     /**
@@ -139,37 +221,25 @@ public class PuzzleController {
      * @param position the {@code Position} of the square to be highlighted
      */
     private void showSelection(Position position) {
-        var square = getSquare(position);
-        square.getStyleClass().add("selected");
+        renderer.showSelection(position);
     }
 
-
     /**
      * Removes the highlight from the square at the specified position.
      *
      * @param position the {@code Position} of the square to be unhighlighted
      */
     private void hideSelection(Position position) {
-        var square = getSquare(position);
-        square.getStyleClass().remove("selected");
+        renderer.hideSelection(position);
     }
 
-
     /**
-     * Retrieves the square at the specified position on the game board.
-     *
-     * @param position the {@code Position} of the square
-     * @return the {@code StackPane} representing the square
-     * @throws AssertionError if the square is not found at the specified position
+     * Stops auto-play and the background work of the hint engine, and closes the solution cache.
+     * Called when the application exits.
      */
-
-    private StackPane getSquare(Position position) {
-        for (var child : board.getChildren()) {
-            if (GridPane.getRowIndex(child) == position.row() && GridPane.getColumnIndex(child) == position.col()) {
-                return (StackPane) child;
-            }
-        }
-        throw new AssertionError();
+    void close() {
+        autoPlayer.stop();
+        hints.close();
     }
 
     /**
@@ -1,7 +1,8 @@
-package puzzle.util;
+package puzzle.controller;
 
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
 import puzzle.model.PuzzleState;
 import puzzle.model.Position;
 
@@ -54,9 +55,7 @@ public class PuzzleMoveSelector {
     }
 
     private void selectTo(Position position) {
-        String move = from.row() + "," + from.col() + "-" + position.row() + "," + position.col();
-        System.out.println(move);
-        if (model.isLegalMove(move)) {
+        if (model.isLegalMove(new TwoPhaseMove<>(from, position))) {
             to = position;
             phase.set(Phase.READY_TO_MOVE);
             invalidSelection = false;
@@ -88,9 +87,7 @@ public class PuzzleMoveSelector {
         if (phase.get() != Phase.READY_TO_MOVE) {
             throw new IllegalStateException();
         }
-        String move = from.row() + "," + from.col() + "-" + to.row() + "," + to.col();
-
-        model.makeMove(move);
+        model.makeMove(new TwoPhaseMove<>(from, to));
         reset();
     }
 
@@ -0,0 +1,132 @@
+package puzzle.controller;
+
+import javafx.beans.binding.ObjectBinding;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.geometry.HPos;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.RowConstraints;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Circle;
+import puzzle.model.Position;
+import puzzle.model.Square;
+
+import java.util.function.Consumer;
+
+/**
+ * The {@code SceneGraphBoardRenderer} class draws a board as a {@link GridPane} with one
+ * {@link StackPane} per cell, holding a {@link Circle} whose fill is bound to the square of the
+ * cell. The cells have the {@code square} style class, and the highlighted ones the
+ * {@code selected} style class as well.
+ */
+public class SceneGraphBoardRenderer implements BoardRenderer {
+
+    private static final int CIRCLE_RADIUS = 50;
+
+    /**
+     * The number of cells along the longer side of the board up to which the pieces are drawn
+     * with {@link #CIRCLE_RADIUS}. The pieces of larger boards are shrunk to fit.
+     */
+    private static final int FULL_SIZE_CELLS = 5;
+
+    private static final double GAP = 10;
+
+    private final GridPane grid = new GridPane();
+
+    private final StackPane[][] cells;
+
+    private Consumer<Position> onCellClicked = position -> {};
+
+    /**
+     * Creates a {@code SceneGraphBoardRenderer} object that draws the board specified.
+     *
+     * @param squares the board to draw
+     */
+    public SceneGraphBoardRenderer(ObservableBoard squares) {
+        var spec = squares.getSnapshot().spec();
+        int circleRadius = CIRCLE_RADIUS * FULL_SIZE_CELLS
+                / Math.max(FULL_SIZE_CELLS, Math.max(spec.rows(), spec.cols()));
+        grid.setHgap(GAP);
+        grid.setVgap(GAP);
+        for (var j = 0; j < spec.cols(); j++) {
+            grid.getColumnConstraints().add(new ColumnConstraints(10, 2 * circleRadius, Double.MAX_VALUE,
+                    Priority.SOMETIMES, HPos.CENTER, true));
+        }
+        for (var i = 0; i < spec.rows(); i++) {
+            grid.getRowConstraints().add(new RowConstraints(10, 2 * circleRadius, Double.MAX_VALUE,
+                    Priority.SOMETIMES, VPos.CENTER, true));
+        }
+        cells = new StackPane[spec.rows()][spec.cols()];
+        for (var i = 0; i < spec.rows(); i++) {
+            for (var j = 0; j < spec.cols(); j++) {
+                cells[i][j] = createSquare(squares.squareProperty(i, j), new Position(i, j), circleRadius);
+                grid.add(cells[i][j], j, i);
+            }
+        }
+    }
+
+    /**
+     * Creates the cell at the specified position on the board.
+     *
+     * @param squareProperty the property representing the square of the cell
+     * @param position the position of the cell
+     * @param circleRadius the radius of the piece
+     * @return the {@code StackPane} representing the cell
+     */
+    private StackPane createSquare(ReadOnlyObjectProperty<Square> squareProperty, Position position,
+                                   int circleRadius) {
+        var square = new StackPane();
+        square.getStyleClass().add("square");
+        var piece = new Circle(circleRadius);
+        piece.fillProperty().bind(createSquareBinding(squareProperty));
+        square.getChildren().add(piece);
+        square.setOnMouseClicked(event -> onCellClicked.accept(position));
+        return square;
+    }
+
+    /**
+     * Creates a binding for the color property of a square based on its state.
+     *
+     * @param squareProperty the property representing the state of the square
+     * @return the {@code ObjectBinding<Paint>} for the square's color
+     */
+    private ObjectBinding<Paint> createSquareBinding(ReadOnlyObjectProperty<Square> squareProperty) {
+        return new ObjectBinding<Paint>() {
+            {
+                super.bind(squareProperty);
+            }
+            @Override
+            protected Paint computeValue() {
+                return BoardRenderer.paintOf(squareProperty.get());
+            }
+        };
+    }
+
+    @Override
+    public Node getNode() {
+        return grid;
+    }
+
+    @Override
+    public void setOnCellClicked(Consumer<Position> handler) {
+        onCellClicked = handler;
+    }
+
+    @Override
+    public void showSelection(Position position) {
+        var styleClass = cells[position.row()][position.col()].getStyleClass();
+        if (!styleClass.contains("selected")) {
+            styleClass.add("selected");
+        }
+    }
+
+    @Override
+    public void hideSelection(Position position) {
+        cells[position.row()][position.col()].getStyleClass().remove("selected");
+    }
+
+}
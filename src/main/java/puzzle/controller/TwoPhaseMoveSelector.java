@@ -1,4 +1,4 @@
-package puzzle.util;
+package puzzle.controller;
 
 import puzzle.TwoPhaseMoveState;
 import javafx.beans.property.ReadOnlyObjectProperty;
@@ -0,0 +1,325 @@
+package puzzle.model;
+
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.solver.SolveRequest;
+import puzzle.solver.SolveResult;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code BatchSolver} class solves many starting positions of a board in parallel. The
+ * positions are read one per line, and solved on a bounded pool of threads that share the
+ * {@link SolveConnector}, thus its distance database and its solution cache. The results are
+ * written as the solutions complete, thus not necessarily in the order of the input, and a
+ * summary of the throughput and of the latencies is written at the end.
+ *
+ * <p>A position is either the {@linkplain PuzzleState#encode() code} of a state, or the squares of
+ * the board row by row, separated by {@code /}, with the characters used by
+ * {@link BoardSpec#parse(String)}, e.g., {@code RX.XB/R...B/RXXXB}. Blank lines and lines starting
+ * with {@code #} are skipped. For each position one tab-separated line is written: the line number
+ * of the position, then {@code solved}, the number of moves, the time in milliseconds and the
+ * moves; or {@code unsolvable} and the time; or {@code stopped}, the
+ * {@linkplain SolveResult.Outcome outcome} and the time, if the search of the position exhausted
+ * its budget; or {@code invalid} and the reason; or {@code error} and the failure of the solver.
+ * An invalid or unsolvable position, a position that exhausts its budget, or a failure of the
+ * solver on a position, does not stop the batch.</p>
+ *
+ * <p>Each position is searched with its own {@link SolveRequest}, bounded by a timeout and by a
+ * cap on the nodes expanded, so a single hard position cannot hold a thread indefinitely.</p>
+ *
+ * <p>Usage: {@code BatchSolver [--threads N] [--timeout MILLIS] [--max-nodes N] [file]}. The
+ * positions are read from the standard input if no file is given, and are positions of the board
+ * returned by {@link BoardSpec#defaultSpec()}. The summary is written to the standard error.</p>
+ */
+public class BatchSolver {
+
+    /**
+     * The number of positions submitted but not yet written per thread, which bounds the memory
+     * used by the results waiting to be written.
+     */
+    private static final int PENDING_PER_THREAD = 4;
+
+    /**
+     * The outcome of solving a position.
+     */
+    private enum Status {
+        SOLVED, UNSOLVABLE, STOPPED, INVALID, ERROR
+    }
+
+    /**
+     * The result of solving a position.
+     *
+     * @param line the line number of the position
+     * @param status the outcome
+     * @param solution the solution, if the position is solved
+     * @param nanos the time taken in nanoseconds
+     * @param message the outcome of a stopped search, the reason why the position is invalid, or
+     *                the failure of the solver
+     */
+    private record Result(int line, Status status, Solution solution, long nanos, String message) {
+    }
+
+    /**
+     * The summary of a batch.
+     *
+     * @param solved the number of positions solved
+     * @param unsolvable the number of positions that cannot be solved
+     * @param stopped the number of positions whose search exhausted its budget
+     * @param invalid the number of lines that are not positions of the board
+     * @param errors the number of positions on which the solver failed
+     * @param elapsedNanos the time taken by the batch in nanoseconds
+     * @param p50Millis the median time of solving a position in milliseconds
+     * @param p99Millis the 99th percentile of the time of solving a position in milliseconds
+     */
+    public record Summary(int solved, int unsolvable, int stopped, int invalid, int errors, long elapsedNanos,
+                          double p50Millis, double p99Millis) {
+
+        /**
+         * {@return the number of positions solved or found unsolvable per second}
+         */
+        public double throughput() {
+            return elapsedNanos == 0 ? 0.0 : (solved + unsolvable) * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("solved: %d, unsolvable: %d, stopped: %d, invalid: %d, errors: %d, "
+                            + "elapsed: %.3f s, throughput: %.1f positions/s, p50: %.3f ms, p99: %.3f ms",
+                    solved, unsolvable, stopped, invalid, errors, elapsedNanos / 1e9, throughput(), p50Millis,
+                    p99Millis);
+        }
+    }
+
+    private final SolveConnector connector;
+    private final BoardSpec spec;
+    private final int threads;
+    private final Duration timeout;
+    private final long maxExpansions;
+
+    /**
+     * Creates a {@code BatchSolver} object whose searches are not bounded.
+     *
+     * @param connector the connector that solves the positions, which is shared by the threads
+     * @param spec the board of the positions
+     * @param threads the number of threads
+     */
+    public BatchSolver(SolveConnector connector, BoardSpec spec, int threads) {
+        this(connector, spec, threads, null, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a {@code BatchSolver} object whose search of each position is bounded.
+     *
+     * @param connector the connector that solves the positions, which is shared by the threads
+     * @param spec the board of the positions
+     * @param threads the number of threads
+     * @param timeout the time the search of a position may take, or {@code null} if it is not
+     *                limited
+     * @param maxExpansions the largest number of nodes expanded by the search of a position
+     */
+    public BatchSolver(SolveConnector connector, BoardSpec spec, int threads, Duration timeout,
+                       long maxExpansions) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive: " + threads);
+        }
+        if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+            throw new IllegalArgumentException("The timeout must be positive: " + timeout);
+        }
+        if (maxExpansions < 1) {
+            throw new IllegalArgumentException("The node cap must be positive: " + maxExpansions);
+        }
+        this.connector = connector;
+        this.spec = spec;
+        this.threads = threads;
+        this.timeout = timeout;
+        this.maxExpansions = maxExpansions;
+    }
+
+    /**
+     * Solves the positions read from the reader, and writes the results as they complete.
+     *
+     * @param in the reader of the positions
+     * @param out the stream of the results
+     * @return the summary of the batch
+     * @throws IOException if an I/O error occurs while reading the positions
+     */
+    public Summary run(BufferedReader in, PrintStream out) throws IOException {
+        long start = System.nanoTime();
+        var counts = new int[Status.values().length];
+        var latencies = new long[16];
+        int latencyCount = 0;
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var completion = new ExecutorCompletionService<Result>(executor);
+            int pending = 0;
+            int lineNumber = 0;
+            boolean eof = false;
+            while (!eof || pending > 0) {
+                if (!eof && pending < PENDING_PER_THREAD * threads) {
+                    String line = in.readLine();
+                    if (line == null) {
+                        eof = true;
+                    } else {
+                        lineNumber++;
+                        var text = line.strip();
+                        if (!text.isEmpty() && !text.startsWith("#")) {
+                            int number = lineNumber;
+                            completion.submit(() -> solve(number, text));
+                            pending++;
+                        }
+                    }
+                    continue;
+                }
+                var result = take(completion);
+                pending--;
+                counts[result.status().ordinal()]++;
+                if (result.status() != Status.INVALID && result.status() != Status.ERROR) {
+                    if (latencyCount == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, 2 * latencyCount);
+                    }
+                    latencies[latencyCount++] = result.nanos();
+                }
+                out.println(format(result));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Arrays.sort(latencies, 0, latencyCount);
+        return new Summary(counts[Status.SOLVED.ordinal()], counts[Status.UNSOLVABLE.ordinal()],
+                counts[Status.STOPPED.ordinal()],
+                counts[Status.INVALID.ordinal()], counts[Status.ERROR.ordinal()], System.nanoTime() - start,
+                percentile(latencies, latencyCount, 0.50), percentile(latencies, latencyCount, 0.99));
+    }
+
+    private static Result take(ExecutorCompletionService<Result> completion) {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The batch was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unexpected error while solving", e.getCause());
+        }
+    }
+
+    private Result solve(int line, String text) {
+        long start = System.nanoTime();
+        PuzzleState state;
+        try {
+            state = parsePosition(text);
+        } catch (IllegalArgumentException e) {
+            return new Result(line, Status.INVALID, null, System.nanoTime() - start, e.getMessage());
+        }
+        var request = SolveRequest.unlimited().withMaxExpansions(maxExpansions);
+        if (timeout != null) {
+            request = request.withTimeout(timeout);
+        }
+        SolveResult<TwoPhaseMove<Position>> result;
+        try {
+            result = connector.solvePuzzle(state, request);
+        } catch (RuntimeException | Error e) {
+            // A failure on one position is reported on its line, and the batch goes on.
+            return new Result(line, Status.ERROR, null, System.nanoTime() - start, e.toString());
+        }
+        long nanos = System.nanoTime() - start;
+        return switch (result.outcome()) {
+            case SOLVED -> new Result(line, Status.SOLVED, Solution.of(result.solution().orElseThrow()), nanos,
+                    null);
+            case NO_SOLUTION -> new Result(line, Status.UNSOLVABLE, null, nanos, null);
+            default -> new Result(line, Status.STOPPED, null, nanos, result.outcome().name());
+        };
+    }
+
+    /**
+     * Parses a position of the board.
+     *
+     * @param text the code of the state, or the squares of the board row by row, separated by
+     *             {@code /}
+     * @return the state
+     * @throws IllegalArgumentException if the text is not a position of the board
+     */
+    PuzzleState parsePosition(String text) {
+        if (text.chars().allMatch(Character::isDigit)) {
+            try {
+                return new PuzzleSnapshot(spec, Long.parseLong(text)).toState();
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a code: " + text, e);
+            }
+        }
+        var rows = text.split("/");
+        var squares = new Square[rows.length][];
+        for (int i = 0; i < rows.length; i++) {
+            var row = rows[i].replaceAll("\\s", "");
+            squares[i] = new Square[row.length()];
+            for (int j = 0; j < row.length(); j++) {
+                squares[i][j] = switch (row.charAt(j)) {
+                    case '.' -> Square.NONE;
+                    case 'X' -> Square.BLOCK;
+                    case 'R' -> Square.RED;
+                    case 'B' -> Square.BLUE;
+                    default -> throw new IllegalArgumentException("Unexpected character: " + row.charAt(j));
+                };
+            }
+        }
+        return new PuzzleState(spec, squares);
+    }
+
+    private static String format(Result result) {
+        return switch (result.status()) {
+            case SOLVED -> String.format("%d\tsolved\t%d\t%.3f\t%s", result.line(), result.solution().length(),
+                    result.nanos() / 1e6, result.solution().moves().stream()
+                            .map(move -> move.from() + "-" + move.to())
+                            .collect(Collectors.joining(" ")));
+            case UNSOLVABLE -> String.format("%d\tunsolvable\t%.3f", result.line(), result.nanos() / 1e6);
+            case STOPPED -> String.format("%d\tstopped\t%s\t%.3f", result.line(), result.message(),
+                    result.nanos() / 1e6);
+            case INVALID -> String.format("%d\tinvalid\t%s", result.line(), result.message());
+            case ERROR -> String.format("%d\terror\t%s", result.line(), result.message().replaceAll("\\R", " "));
+        };
+    }
+
+    private static double percentile(long[] sorted, int count, double quantile) {
+        if (count == 0) {
+            return 0.0;
+        }
+        int index = Math.max(0, (int) Math.ceil(quantile * count) - 1);
+        return sorted[index] / 1e6;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Duration timeout = null;
+        long maxExpansions = Long.MAX_VALUE;
+        Path path = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--timeout") && i + 1 < args.length) {
+                timeout = Duration.ofMillis(Long.parseLong(args[++i]));
+            } else if (args[i].equals("--max-nodes") && i + 1 < args.length) {
+                maxExpansions = Long.parseLong(args[++i]);
+            } else {
+                path = Path.of(args[i]);
+            }
+        }
+        var solver = new BatchSolver(new SolveConnector(), BoardSpec.defaultSpec(), threads, timeout,
+                maxExpansions);
+        try (var in = path == null
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(path)) {
+            System.err.println(solver.run(in, System.out));
+        }
+    }
+}
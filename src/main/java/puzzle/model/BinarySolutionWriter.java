@@ -0,0 +1,55 @@
+package puzzle.model;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes solutions in the binary format described by {@link SolutionReader}.
+ */
+class BinarySolutionWriter implements SolutionWriter {
+
+    private final DataOutputStream out;
+    private final BoardSpec spec;
+
+    BinarySolutionWriter(OutputStream out, BoardSpec spec) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.spec = spec;
+        byte[] text = spec.toString().getBytes(StandardCharsets.UTF_8);
+        this.out.writeInt(SolutionReader.MAGIC);
+        this.out.writeInt(SolutionReader.VERSION);
+        this.out.writeInt(text.length);
+        this.out.write(text);
+    }
+
+    @Override
+    public void write(Solution solution) throws IOException {
+        if (!spec.hasSameStates(solution.start().spec())) {
+            throw new IllegalArgumentException("The solution belongs to another board");
+        }
+        var indices = new byte[solution.length()];
+        for (int i = 0; i < indices.length; i++) {
+            var move = solution.moves().get(i);
+            int index = spec.indexOf(move);
+            if (index < 0) {
+                throw new IllegalArgumentException("Not a move of the board: " + move);
+            }
+            indices[i] = (byte) index;
+        }
+        out.writeLong(solution.start().code());
+        out.writeInt(indices.length);
+        out.write(indices);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+}
@@ -0,0 +1,721 @@
+package puzzle.model;
+
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * The {@code BoardSpec} class describes a board of the puzzle: its size, its blocks, the initial
+ * cells of the red and the blue stones, and the goal regions of the two colors. The puzzle is
+ * solved when every red stone is in the red goal region and every blue stone is in the blue goal
+ * region.
+ *
+ * <p>A board has at most 64 cells, at most 32 of which are not blocks. It can be created with a
+ * {@link Builder}, or parsed from text by {@link #parse(String)}. The text consists of two grids
+ * of the same size separated by an empty line, the first one showing the initial state and the
+ * second one the goal regions, where {@code .} is an empty cell, {@code X} is a block,
+ * {@code R} is a red stone or a red goal cell, and {@code B} is a blue stone or a blue goal cell.
+ * Whitespace within the rows and the lines starting with {@code #} are ignored. The stock board
+ * is:</p>
+ * <pre>
+ * R X . X B
+ * R . . . B
+ * R X X X B
+ *
+ * B X . X R
+ * B . . . R
+ * B X X X R
+ * </pre>
+ *
+ * <p>The tables used by {@link PuzzleState}, i.e., the neighbors of the cells, the moves between
+ * adjacent cells and the Zobrist keys, are computed once per board and shared by all of its
+ * states. So are the symmetries of the board, which are found by trying every rotation and
+ * reflection of the grid, with and without swapping the colors.</p>
+ */
+public final class BoardSpec {
+
+    /**
+     * The system property that names the board file used by {@link #defaultSpec()}.
+     */
+    public static final String PATH_PROPERTY = "puzzle.board";
+
+    /**
+     * The largest number of cells of a board.
+     */
+    public static final int MAX_CELLS = 64;
+
+    /**
+     * The largest number of cells of a board that are not blocks.
+     */
+    public static final int MAX_FREE_CELLS = 32;
+
+    static final int UP = 0;
+    static final int DOWN = 1;
+    static final int LEFT = 2;
+    static final int RIGHT = 3;
+
+    private static final BoardSpec STOCK = parse("""
+            R X . X B
+            R . . . B
+            R X X X B
+
+            B X . X R
+            B . . . R
+            B X X X R
+            """);
+
+    private final int rows;
+    private final int cols;
+    private final int cells;
+    private final long blocks;
+    private final long redStart;
+    private final long blueStart;
+    private final long redGoal;
+    private final long blueGoal;
+
+    private final long boardMask;
+    private final long firstColumn;
+    private final long lastColumn;
+
+    /**
+     * The cells orthogonally adjacent to each cell.
+     */
+    private final long[] neighbors;
+
+    /**
+     * The positions of the cells, indexed by the cell.
+     */
+    private final Position[] positions;
+
+    /**
+     * The moves between adjacent cells, indexed by {@code direction << 6 | from}, and
+     * {@code null} for the indices that do not describe a move within the board.
+     */
+    private final TwoPhaseMove<Position>[] moves;
+
+    /**
+     * The difference between the index of the target cell and that of the source cell, indexed
+     * by the direction.
+     */
+    private final int[] deltas;
+
+    /**
+     * The Zobrist keys of the red and the blue stones, indexed by the cell.
+     */
+    private final long[][] zobrist;
+
+    /**
+     * The symmetries of the board that preserve the goal, except the identity.
+     */
+    private final List<Symmetry> symmetries;
+
+    /**
+     * A symmetry of the board that maps the initial state to the goal state and back, or
+     * {@code null} if there is no such symmetry.
+     */
+    private final Symmetry startToGoal;
+
+    @SuppressWarnings("unchecked")
+    private BoardSpec(int rows, int cols, long blocks, long redStart, long blueStart, long redGoal, long blueGoal) {
+        if (rows < 1 || cols < 1 || (long) rows * cols > MAX_CELLS) {
+            throw new IllegalArgumentException("Invalid board size: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = rows * cols;
+        this.boardMask = cells == 64 ? -1L : (1L << cells) - 1;
+        if (Long.bitCount(boardMask & ~blocks) > MAX_FREE_CELLS) {
+            throw new IllegalArgumentException("The board has more than " + MAX_FREE_CELLS + " free cells");
+        }
+        if ((redStart & blueStart) != 0 || ((redStart | blueStart) & blocks) != 0) {
+            throw new IllegalArgumentException("The stones overlap each other or the blocks");
+        }
+        if (((redGoal | blueGoal) & blocks) != 0) {
+            throw new IllegalArgumentException("The goal regions overlap the blocks");
+        }
+        if (Long.bitCount(redStart) > Long.bitCount(redGoal) || Long.bitCount(blueStart) > Long.bitCount(blueGoal)) {
+            throw new IllegalArgumentException("A goal region has fewer cells than the stones of its color");
+        }
+        this.blocks = blocks;
+        this.redStart = redStart;
+        this.blueStart = blueStart;
+        this.redGoal = redGoal;
+        this.blueGoal = blueGoal;
+
+        long first = 0L;
+        for (int i = 0; i < rows; i++) {
+            first |= 1L << (i * cols);
+        }
+        this.firstColumn = first;
+        this.lastColumn = first << (cols - 1);
+        this.deltas = new int[] {-cols, cols, -1, 1};
+        this.neighbors = new long[cells];
+        this.positions = new Position[cells];
+        this.moves = (TwoPhaseMove<Position>[]) new TwoPhaseMove<?>[4 << 6];
+        this.zobrist = new long[2][cells];
+        var random = new SplittableRandom(0x5EED_2024L);
+        for (int cell = 0; cell < cells; cell++) {
+            zobrist[0][cell] = random.nextLong();
+            zobrist[1][cell] = random.nextLong();
+            positions[cell] = new Position(cell / cols, cell % cols);
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            for (int direction = UP; direction <= RIGHT; direction++) {
+                int target = targetOf(cell, direction);
+                if (target >= 0) {
+                    neighbors[cell] |= 1L << target;
+                    moves[direction << 6 | cell] = new TwoPhaseMove<>(positions[cell], positions[target]);
+                }
+            }
+        }
+        var goalSymmetries = new ArrayList<Symmetry>();
+        Symmetry mirror = null;
+        for (var symmetry : candidateSymmetries()) {
+            if (symmetry.apply(blocks) != blocks) {
+                continue;
+            }
+            boolean preservesGoal = symmetry.red(redGoal, blueGoal) == redGoal
+                    && symmetry.blue(redGoal, blueGoal) == blueGoal
+                    && (!symmetry.swapsColors() || redCount() == blueCount());
+            if (preservesGoal && !(symmetry.isGeometricIdentity() && !symmetry.swapsColors())) {
+                goalSymmetries.add(symmetry);
+            }
+            boolean swapsStartAndGoal = symmetry.red(redStart, blueStart) == redGoal
+                    && symmetry.blue(redStart, blueStart) == blueGoal
+                    && symmetry.red(redGoal, blueGoal) == redStart
+                    && symmetry.blue(redGoal, blueGoal) == blueStart;
+            if (swapsStartAndGoal && symmetry.isInvolution() && mirror == null) {
+                mirror = symmetry;
+            }
+        }
+        this.symmetries = List.copyOf(goalSymmetries);
+        this.startToGoal = mirror;
+    }
+
+    /**
+     * {@return the rotations and reflections of the grid, each with and without swapping the
+     * colors} Non-square grids have only the reflections and the half turn.
+     */
+    private List<Symmetry> candidateSymmetries() {
+        var transforms = new LinkedHashMap<String, IntBinaryOperator>();
+        transforms.put("identity", (i, j) -> i * cols + j);
+        transforms.put("left-right reflection", (i, j) -> i * cols + (cols - 1 - j));
+        transforms.put("top-bottom reflection", (i, j) -> (rows - 1 - i) * cols + j);
+        transforms.put("half turn", (i, j) -> (rows - 1 - i) * cols + (cols - 1 - j));
+        if (rows == cols) {
+            int n = rows;
+            transforms.put("main diagonal reflection", (i, j) -> j * n + i);
+            transforms.put("anti-diagonal reflection", (i, j) -> (n - 1 - j) * n + (n - 1 - i));
+            transforms.put("clockwise quarter turn", (i, j) -> j * n + (n - 1 - i));
+            transforms.put("counterclockwise quarter turn", (i, j) -> (n - 1 - j) * n + i);
+        }
+        var candidates = new ArrayList<Symmetry>();
+        for (var transform : transforms.entrySet()) {
+            int[] images = new int[cells];
+            for (int cell = 0; cell < cells; cell++) {
+                images[cell] = transform.getValue().applyAsInt(cell / cols, cell % cols);
+            }
+            candidates.add(new Symmetry(transform.getKey(), images, false));
+            candidates.add(new Symmetry(transform.getKey(), images, true));
+        }
+        return candidates;
+    }
+
+    /**
+     * {@return the board described by the masks specified}
+     */
+    static BoardSpec of(int rows, int cols, long blocks, long redStart, long blueStart, long redGoal, long blueGoal) {
+        return new BoardSpec(rows, cols, blocks, redStart, blueStart, redGoal, blueGoal);
+    }
+
+    /**
+     * {@return the stock 3x5 board of the puzzle}
+     */
+    public static BoardSpec stock() {
+        return STOCK;
+    }
+
+    /**
+     * Returns the board described by the file named by the {@value #PATH_PROPERTY} system
+     * property, or the stock board if the property is not set.
+     *
+     * @return the default board
+     * @throws UncheckedIOException if the file cannot be read
+     * @throws IllegalArgumentException if the file does not describe a valid board
+     */
+    public static BoardSpec defaultSpec() {
+        var path = System.getProperty(PATH_PROPERTY);
+        if (path == null || path.isBlank()) {
+            return STOCK;
+        }
+        try {
+            return read(Path.of(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a board from a text file.
+     *
+     * @param path the path of the file
+     * @return the board described by the file
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if the file does not describe a valid board
+     * @see #parse(String)
+     */
+    public static BoardSpec read(Path path) throws IOException {
+        return parse(Files.readString(path));
+    }
+
+    /**
+     * Parses a board from the text format described in the class documentation.
+     *
+     * @param text the text describing the board
+     * @return the board described by the text
+     * @throws IllegalArgumentException if the text does not describe a valid board
+     */
+    public static BoardSpec parse(String text) {
+        var grids = new ArrayList<List<String>>();
+        var grid = new ArrayList<String>();
+        for (var line : text.split("\\R")) {
+            if (line.strip().startsWith("#")) {
+                continue;
+            }
+            var row = line.replaceAll("\\s", "");
+            if (row.isEmpty()) {
+                if (!grid.isEmpty()) {
+                    grids.add(grid);
+                    grid = new ArrayList<>();
+                }
+            } else {
+                grid.add(row);
+            }
+        }
+        if (!grid.isEmpty()) {
+            grids.add(grid);
+        }
+        if (grids.size() != 2) {
+            throw new IllegalArgumentException("Expected an initial grid and a goal grid, found " + grids.size()
+                    + " grids");
+        }
+        var start = grids.get(0);
+        var goal = grids.get(1);
+        int rows = start.size();
+        int cols = start.get(0).length();
+        if (goal.size() != rows) {
+            throw new IllegalArgumentException("The grids have different numbers of rows");
+        }
+        var builder = builder(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            if (start.get(i).length() != cols || goal.get(i).length() != cols) {
+                throw new IllegalArgumentException("Row " + i + " does not have " + cols + " cells");
+            }
+            for (int j = 0; j < cols; j++) {
+                char initial = start.get(i).charAt(j);
+                char target = goal.get(i).charAt(j);
+                if ((initial == 'X') != (target == 'X')) {
+                    throw new IllegalArgumentException("The blocks of the grids differ at " + i + "," + j);
+                }
+                switch (initial) {
+                    case 'X' -> builder.block(i, j);
+                    case 'R' -> builder.red(i, j);
+                    case 'B' -> builder.blue(i, j);
+                    case '.' -> { }
+                    default -> throw new IllegalArgumentException("Invalid cell '" + initial + "' at " + i + "," + j);
+                }
+                switch (target) {
+                    case 'R' -> builder.redGoal(i, j);
+                    case 'B' -> builder.blueGoal(i, j);
+                    case 'X', '.' -> { }
+                    default -> throw new IllegalArgumentException("Invalid cell '" + target + "' at " + i + "," + j);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * {@return a builder of a board of the size specified, initially without blocks and stones}
+     *
+     * @param rows the number of rows
+     * @param cols the number of columns
+     */
+    public static Builder builder(int rows, int cols) {
+        return new Builder(rows, cols);
+    }
+
+    private int targetOf(int cell, int direction) {
+        int i = cell / cols;
+        int j = cell % cols;
+        return switch (direction) {
+            case UP -> i > 0 ? cell - cols : -1;
+            case DOWN -> i + 1 < rows ? cell + cols : -1;
+            case LEFT -> j > 0 ? cell - 1 : -1;
+            default -> j + 1 < cols ? cell + 1 : -1;
+        };
+    }
+
+    /**
+     * {@return the number of rows of the board}
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * {@return the number of columns of the board}
+     */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * {@return the number of red stones}
+     */
+    public int redCount() {
+        return Long.bitCount(redStart);
+    }
+
+    /**
+     * {@return the number of blue stones}
+     */
+    public int blueCount() {
+        return Long.bitCount(blueStart);
+    }
+
+    /**
+     * Checks if the position specified is within the board.
+     *
+     * @param position the position to check
+     * @return {@code true} if the position is within the board
+     */
+    public boolean contains(Position position) {
+        return position.row() >= 0 && position.row() < rows && position.col() >= 0 && position.col() < cols;
+    }
+
+    /**
+     * Returns the symmetries of the board that preserve the goal, i.e., that map every goal state
+     * to a goal state, except the identity. Such a symmetry maps every state to an equivalent
+     * one, from which the puzzle can be solved by the same number of moves.
+     *
+     * @return the list of the symmetries, which is empty if the board has no symmetry
+     */
+    public List<Symmetry> symmetries() {
+        return symmetries;
+    }
+
+    /**
+     * Returns a symmetry of the board that maps the initial state to the goal state, and the goal
+     * state back to the initial state, and that is its own inverse. If there is such a symmetry,
+     * the distance of any state from the goal equals the distance of its image from the initial
+     * state, thus a search from the initial state also yields the search from the goal.
+     *
+     * @return an {@code Optional} describing the symmetry, or an empty {@code Optional} if the
+     *         board has no such symmetry
+     */
+    public Optional<Symmetry> startToGoalSymmetry() {
+        return Optional.ofNullable(startToGoal);
+    }
+
+    /**
+     * {@return the number of cells of the board}
+     */
+    int cellCount() {
+        return cells;
+    }
+
+    /**
+     * {@return the index of the cell at the position specified}
+     */
+    int cellOf(Position position) {
+        return position.row() * cols + position.col();
+    }
+
+    /**
+     * {@return the position of the cell specified}
+     */
+    Position positionOf(int cell) {
+        return positions[cell];
+    }
+
+    /**
+     * {@return the mask of all cells of the board}
+     */
+    long boardMask() {
+        return boardMask;
+    }
+
+    /**
+     * {@return the mask of the cells of the first column}
+     */
+    long firstColumnMask() {
+        return firstColumn;
+    }
+
+    /**
+     * {@return the mask of the cells of the last column}
+     */
+    long lastColumnMask() {
+        return lastColumn;
+    }
+
+    /**
+     * {@return the mask of the blocks}
+     */
+    long blockMask() {
+        return blocks;
+    }
+
+    /**
+     * {@return the mask of the red stones of the initial state}
+     */
+    long redStartMask() {
+        return redStart;
+    }
+
+    /**
+     * {@return the mask of the blue stones of the initial state}
+     */
+    long blueStartMask() {
+        return blueStart;
+    }
+
+    /**
+     * {@return the mask of the red goal region}
+     */
+    long redGoalMask() {
+        return redGoal;
+    }
+
+    /**
+     * {@return the mask of the blue goal region}
+     */
+    long blueGoalMask() {
+        return blueGoal;
+    }
+
+    /**
+     * {@return the mask of the cells adjacent to the cell specified}
+     *
+     * @param cell the index of the cell
+     */
+    long neighborMask(int cell) {
+        return neighbors[cell];
+    }
+
+    /**
+     * {@return the move of the index specified}
+     */
+    TwoPhaseMove<Position> move(int index) {
+        return moves[index];
+    }
+
+    /**
+     * {@return the difference between the target cell and the source cell of the moves in the
+     * direction specified}
+     */
+    int delta(int direction) {
+        return deltas[direction];
+    }
+
+    /**
+     * {@return the Zobrist key of a stone on the cell specified}
+     *
+     * @param color 0 for the red stones and 1 for the blue stones
+     * @param cell the index of the cell
+     */
+    long zobristKey(int color, int cell) {
+        return zobrist[color][cell];
+    }
+
+    /**
+     * {@return the index of the move specified, or -1 if it is not a move between adjacent
+     * cells of the board}
+     *
+     * @param move the move
+     */
+    int indexOf(TwoPhaseMove<Position> move) {
+        Position from = move.from();
+        Position to = move.to();
+        if (from == null || to == null || !contains(from)) {
+            return -1;
+        }
+        int rowDiff = to.row() - from.row();
+        int colDiff = to.col() - from.col();
+        int direction;
+        if (colDiff == 0 && rowDiff == -1) {
+            direction = UP;
+        } else if (colDiff == 0 && rowDiff == 1) {
+            direction = DOWN;
+        } else if (rowDiff == 0 && colDiff == -1) {
+            direction = LEFT;
+        } else if (rowDiff == 0 && colDiff == 1) {
+            direction = RIGHT;
+        } else {
+            return -1;
+        }
+        int index = direction << 6 | cellOf(from);
+        return moves[index] != null ? index : -1;
+    }
+
+    /**
+     * Checks if the states of the board specified are the same as those of this board, i.e., if
+     * the boards differ at most in the initial cells of the stones.
+     *
+     * @param other the other board
+     * @return {@code true} if the two boards have the same states and goal regions
+     */
+    boolean hasSameStates(BoardSpec other) {
+        return rows == other.rows && cols == other.cols && blocks == other.blocks
+                && redGoal == other.redGoal && blueGoal == other.blueGoal
+                && redCount() == other.redCount() && blueCount() == other.blueCount();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        return (o instanceof BoardSpec other) && rows == other.rows && cols == other.cols
+                && blocks == other.blocks && redStart == other.redStart && blueStart == other.blueStart
+                && redGoal == other.redGoal && blueGoal == other.blueGoal;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rows, cols, blocks, redStart, blueStart, redGoal, blueGoal);
+    }
+
+    /**
+     * {@return the text describing the board in the format accepted by {@link #parse(String)}}
+     */
+    @Override
+    public String toString() {
+        var text = new StringBuilder();
+        appendGrid(text, redStart, blueStart);
+        text.append(System.lineSeparator());
+        appendGrid(text, redGoal, blueGoal);
+        return text.toString();
+    }
+
+    private void appendGrid(StringBuilder text, long red, long blue) {
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                long mask = 1L << (i * cols + j);
+                char c = (blocks & mask) != 0 ? 'X' : (red & mask) != 0 ? 'R' : (blue & mask) != 0 ? 'B' : '.';
+                text.append(j > 0 ? " " : "").append(c);
+            }
+            text.append(System.lineSeparator());
+        }
+    }
+
+    /**
+     * A builder of {@link BoardSpec} objects.
+     */
+    public static final class Builder {
+
+        private final int rows;
+        private final int cols;
+        private long blocks;
+        private long red;
+        private long blue;
+        private long redGoal;
+        private long blueGoal;
+
+        private Builder(int rows, int cols) {
+            if (rows < 1 || cols < 1 || (long) rows * cols > MAX_CELLS) {
+                throw new IllegalArgumentException("Invalid board size: " + rows + "x" + cols);
+            }
+            this.rows = rows;
+            this.cols = cols;
+        }
+
+        private long bit(int i, int j) {
+            if (i < 0 || i >= rows || j < 0 || j >= cols) {
+                throw new IllegalArgumentException("Cell " + i + "," + j + " is outside of the board");
+            }
+            return 1L << (i * cols + j);
+        }
+
+        /**
+         * Places a block on a cell.
+         *
+         * @param i the row index of the cell
+         * @param j the column index of the cell
+         * @return this builder
+         */
+        public Builder block(int i, int j) {
+            blocks |= bit(i, j);
+            return this;
+        }
+
+        /**
+         * Places a red stone on a cell of the initial state.
+         *
+         * @param i the row index of the cell
+         * @param j the column index of the cell
+         * @return this builder
+         */
+        public Builder red(int i, int j) {
+            red |= bit(i, j);
+            return this;
+        }
+
+        /**
+         * Places a blue stone on a cell of the initial state.
+         *
+         * @param i the row index of the cell
+         * @param j the column index of the cell
+         * @return this builder
+         */
+        public Builder blue(int i, int j) {
+            blue |= bit(i, j);
+            return this;
+        }
+
+        /**
+         * Adds a cell to the red goal region.
+         *
+         * @param i the row index of the cell
+         * @param j the column index of the cell
+         * @return this builder
+         */
+        public Builder redGoal(int i, int j) {
+            redGoal |= bit(i, j);
+            return this;
+        }
+
+        /**
+         * Adds a cell to the blue goal region.
+         *
+         * @param i the row index of the cell
+         * @param j the column index of the cell
+         * @return this builder
+         */
+        public Builder blueGoal(int i, int j) {
+            blueGoal |= bit(i, j);
+            return this;
+        }
+
+        /**
+         * {@return the board described by the builder}
+         *
+         * @throws IllegalArgumentException if the board is not valid
+         */
+        public BoardSpec build() {
+            return new BoardSpec(rows, cols, blocks, red, blue, redGoal, blueGoal);
+        }
+    }
+
+}
@@ -0,0 +1,279 @@
+package puzzle.model;
+
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.solver.Node;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * The {@code DistanceDatabase} class stores the distance to the goal, i.e., the length of the
+ * shortest solution, of every state of a board. The distances are computed by a single
+ * backward breadth-first search from the goal states, and are stored in one byte per state,
+ * indexed by the rank of the state. Only the canonical state of each class of
+ * {@linkplain PuzzleState#canonicalCode() equivalent states} is expanded and stored, and the
+ * other states are looked up by the rank of their canonical state.
+ *
+ * <p>A database can be written to a file, and opened later by memory-mapping the file, so
+ * that the shortest solution from any state can be found with a few lookups per move instead
+ * of a search.</p>
+ *
+ * <p>The file consists of a header followed by the distances:</p>
+ * <ul>
+ * <li>the magic number {@code PZDB} and the format version as {@code int}s,</li>
+ * <li>the number of rows and columns of the board as {@code int}s,</li>
+ * <li>the masks of the blocks, the red and the blue stones of the initial state, and the red and
+ * the blue goal regions as {@code long}s, identifying the board,</li>
+ * <li>the number of states as a {@code long},</li>
+ * <li>one unsigned byte per state, where {@code 255} stands for an unsolvable state.</li>
+ * </ul>
+ */
+public final class DistanceDatabase {
+
+    /**
+     * The system property that names the database file opened by {@link #openDefault()}.
+     */
+    public static final String PATH_PROPERTY = "puzzle.database";
+
+    /**
+     * The database file opened by {@link #openDefault()} if the system property is not set.
+     */
+    public static final String DEFAULT_PATH = "puzzle.db";
+
+    private static final int MAGIC = 0x505A4442;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES + 6 * Long.BYTES;
+
+    private static final int UNSOLVABLE = 0xFF;
+
+    /**
+     * A state of the board, used for ranking and unranking the states.
+     */
+    private final PuzzleState board;
+    private final ByteBuffer distances;
+
+    private DistanceDatabase(PuzzleState board, ByteBuffer distances) {
+        this.board = board;
+        this.distances = distances;
+    }
+
+    /**
+     * Computes the distances of all states of the board of the state specified.
+     *
+     * @param board a state of the board
+     * @return the database of the board
+     * @throws IllegalArgumentException if the board has too many states
+     * @throws IllegalStateException if a distance does not fit into a byte
+     */
+    public static DistanceDatabase generate(PuzzleState board) {
+        var goals = board.goalStates();
+        long count = board.stateCount();
+        if (count > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many states: " + count);
+        }
+        byte[] table = new byte[(int) count];
+        Arrays.fill(table, (byte) UNSOLVABLE);
+        long[] queue = new long[(int) count];
+        int head = 0;
+        int tail = 0;
+        for (var state : goals) {
+            long rank = state.canonical().rank();
+            if (table[(int) rank] != 0) {
+                table[(int) rank] = 0;
+                queue[tail++] = rank;
+            }
+        }
+        while (head < tail) {
+            long rank = queue[head++];
+            int distance = table[(int) rank] & 0xFF;
+            if (distance + 1 >= UNSOLVABLE) {
+                throw new IllegalStateException("The distances do not fit into a byte");
+            }
+            var state = board.unrank(rank);
+            for (var move : state.getLegalMoves()) {
+                var child = state.clone();
+                child.makeMove(move);
+                long childRank = child.canonical().rank();
+                if ((table[(int) childRank] & 0xFF) == UNSOLVABLE) {
+                    table[(int) childRank] = (byte) (distance + 1);
+                    queue[tail++] = childRank;
+                }
+            }
+        }
+        return new DistanceDatabase(board.clone(), ByteBuffer.wrap(table));
+    }
+
+    /**
+     * Writes the database to the file specified.
+     *
+     * @param path the path of the file
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+            var spec = board.spec();
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(spec.rows())
+                    .putInt(spec.cols())
+                    .putLong(spec.blockMask())
+                    .putLong(spec.redStartMask())
+                    .putLong(spec.blueStartMask())
+                    .putLong(spec.redGoalMask())
+                    .putLong(spec.blueGoalMask())
+                    .putLong(distances.capacity())
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            var data = distances.duplicate().clear();
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+
+    /**
+     * Opens a database file by memory-mapping it.
+     *
+     * @param path the path of the file
+     * @return the database stored in the file
+     * @throws IOException if an I/O error occurs, or the file is not a valid database file
+     */
+    public static DistanceDatabase open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a distance database file: " + path);
+            }
+            PuzzleState board;
+            try {
+                board = new PuzzleState(BoardSpec.of(buffer.getInt(), buffer.getInt(), buffer.getLong(),
+                        buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong()));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt distance database file: " + path, e);
+            }
+            long count = buffer.getLong();
+            if (count != board.stateCount() || buffer.remaining() != count) {
+                throw new IOException("Corrupt distance database file: " + path);
+            }
+            return new DistanceDatabase(board, buffer.slice());
+        }
+    }
+
+    /**
+     * Opens the database file named by the {@value #PATH_PROPERTY} system property, or the
+     * {@value #DEFAULT_PATH} file if the property is not set.
+     *
+     * @return an {@code Optional} describing the database, or an empty {@code Optional} if the
+     *         file does not exist or cannot be opened
+     */
+    public static Optional<DistanceDatabase> openDefault() {
+        var path = Path.of(System.getProperty(PATH_PROPERTY, DEFAULT_PATH));
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(open(path));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Checks if the state specified belongs to the board of the database.
+     *
+     * @param state the state to check
+     * @return {@code true} if the distance of the state is stored in the database
+     */
+    public boolean covers(PuzzleState state) {
+        return board.spec().hasSameStates(state.spec())
+                && Long.bitCount(state.redMask()) == Long.bitCount(board.redMask())
+                && Long.bitCount(state.blueMask()) == Long.bitCount(board.blueMask());
+    }
+
+    /**
+     * Returns the length of the shortest solution from the state specified.
+     *
+     * @param state the state, which must belong to the board of the database
+     * @return an {@code OptionalInt} describing the distance to the goal, or an empty
+     *         {@code OptionalInt} if the puzzle cannot be solved from the state
+     */
+    public OptionalInt distance(PuzzleState state) {
+        int distance = distanceOf(state);
+        return distance == UNSOLVABLE ? OptionalInt.empty() : OptionalInt.of(distance);
+    }
+
+    /**
+     * Returns the first move of a shortest solution from the state specified.
+     *
+     * @param state the state, which must belong to the board of the database
+     * @return an {@code Optional} describing the move, or an empty {@code Optional} if the state
+     *         is solved or the puzzle cannot be solved from the state
+     */
+    public Optional<TwoPhaseMove<Position>> bestMove(PuzzleState state) {
+        int distance = distanceOf(state);
+        if (distance == 0 || distance == UNSOLVABLE) {
+            return Optional.empty();
+        }
+        for (var move : state.getLegalMoves()) {
+            var child = state.clone();
+            child.makeMove(move);
+            if (distanceOf(child) == distance - 1) {
+                return Optional.of(move);
+            }
+        }
+        throw new IllegalStateException("Corrupt distance database");
+    }
+
+    private int distanceOf(PuzzleState state) {
+        return distances.get((int) state.canonical().rank()) & 0xFF;
+    }
+
+    /**
+     * Returns a shortest solution from the state specified by following the best moves.
+     *
+     * @param state the initial state, which must belong to the board of the database
+     * @return an {@code Optional} describing the node of the solution, or an empty
+     *         {@code Optional} if the puzzle cannot be solved from the state
+     */
+    public Optional<Node<TwoPhaseMove<Position>>> solve(PuzzleState state) {
+        if (distance(state).isEmpty()) {
+            return Optional.empty();
+        }
+        var node = new Node<TwoPhaseMove<Position>>(state.clone());
+        var current = state.clone();
+        for (var move = bestMove(current); move.isPresent(); move = bestMove(current)) {
+            current.makeMove(move.get());
+            node = new Node<>(current.clone(), node, move.get());
+        }
+        return Optional.of(node);
+    }
+
+    /**
+     * Generates the database of the default board, and writes it to the file given as the first
+     * command-line argument, or to {@value #DEFAULT_PATH}.
+     *
+     * @param args the command-line arguments
+     * @throws IOException if an I/O error occurs
+     */
+    public static void main(String[] args) throws IOException {
+        var path = Path.of(args.length > 0 ? args[0] : DEFAULT_PATH);
+        long start = System.nanoTime();
+        var database = generate(new PuzzleState());
+        database.write(path);
+        System.out.printf("Wrote %d distances to %s in %.1f ms%n", database.distances.capacity(), path,
+                (System.nanoTime() - start) / 1e6);
+    }
+
+}
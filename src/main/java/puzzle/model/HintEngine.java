@@ -0,0 +1,204 @@
+package puzzle.model;
+
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.solver.CancellationToken;
+import puzzle.solver.LongIntHashMap;
+import puzzle.solver.Node;
+import puzzle.solver.SolveRequest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The {@code HintEngine} class computes the best next move of a state, or the whole solution
+ * from it, in the background, so that the user interface is not blocked by the search.
+ *
+ * <p>The engine remembers the last solution it found. If the state of a request is on the path of
+ * that solution, e.g., because the user followed the previous hint, the hint is answered at once
+ * from the rest of the path. Otherwise the solution cache of the {@link SolveConnector} is
+ * consulted, and only if it misses is a search started on a virtual thread. A new request
+ * cancels the pending one, and the search for a stale state is stopped through its
+ * {@link CancellationToken}, so it neither delivers its result nor keeps the thread busy.</p>
+ *
+ * <p>The methods of the class are thread-safe.</p>
+ */
+public class HintEngine implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * The connector, which may still be being created in the background.
+     */
+    private final CompletableFuture<SolveConnector> connector;
+
+    /**
+     * Whether the connector was created by the engine, and is thus closed by it.
+     */
+    private final boolean ownsConnector;
+
+    /**
+     * The moves of the last solution found.
+     */
+    private List<TwoPhaseMove<Position>> path = List.of();
+
+    /**
+     * The index in {@link #path} of the next move of each state on the path, keyed by the code of
+     * the state.
+     */
+    private LongIntHashMap pathIndices = new LongIntHashMap();
+
+    private CompletableFuture<Optional<List<TwoPhaseMove<Position>>>> pending;
+
+    private CancellationToken pendingToken;
+
+    /**
+     * Creates a {@code HintEngine} object that uses a {@link SolveConnector} with the default
+     * distance database and solution cache. The connector is created on a background thread,
+     * since opening the database and the cache reads files, thus the constructor returns at once.
+     * The solution cache of the connector is closed by {@link #close()}.
+     */
+    public HintEngine() {
+        this.connector = CompletableFuture.supplyAsync(SolveConnector::new, executor);
+        this.ownsConnector = true;
+    }
+
+    /**
+     * Creates a {@code HintEngine} object that uses the connector specified. The connector is not
+     * closed by {@link #close()}.
+     *
+     * @param connector the connector that solves the puzzle
+     */
+    public HintEngine(SolveConnector connector) {
+        this.connector = CompletableFuture.completedFuture(connector);
+        this.ownsConnector = false;
+    }
+
+    /**
+     * Requests the best next move of the state specified, and cancels the pending request, if any.
+     * The state is copied, thus it may be modified after the call.
+     *
+     * @param state the state
+     * @return a future completed with the move, or with an empty {@code Optional} if the state is
+     *         solved or the puzzle cannot be solved from it; the future is already completed if
+     *         the hint is known without a search
+     */
+    public CompletableFuture<Optional<TwoPhaseMove<Position>>> requestHint(PuzzleState state) {
+        return requestSolution(state).thenApply(moves -> moves.flatMap(m -> m.stream().findFirst()));
+    }
+
+    /**
+     * Requests the moves that solve the puzzle from the state specified, and cancels the pending
+     * request, if any. The state is copied, thus it may be modified after the call.
+     *
+     * @param state the state
+     * @return a future completed with the moves, which are empty if the state is solved, or with
+     *         an empty {@code Optional} if the puzzle cannot be solved from the state; the future
+     *         is already completed if the solution is known without a search
+     */
+    public synchronized CompletableFuture<Optional<List<TwoPhaseMove<Position>>>> requestSolution(
+            PuzzleState state) {
+        cancel();
+        var snapshot = state.clone();
+        if (snapshot.isSolved()) {
+            return CompletableFuture.completedFuture(Optional.of(List.of()));
+        }
+        var known = knownSolution(snapshot);
+        if (known.isPresent()) {
+            return CompletableFuture.completedFuture(known);
+        }
+        var future = new CompletableFuture<Optional<List<TwoPhaseMove<Position>>>>();
+        var request = SolveRequest.unlimited();
+        pending = future;
+        pendingToken = request.cancellationToken();
+        executor.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                var moves = connector.join().solvePuzzle(snapshot, request).solution().map(Node::getMoves);
+                moves.ifPresent(m -> remember(snapshot, m));
+                future.complete(moves);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Cancels the pending request, if any.
+     */
+    public synchronized void cancel() {
+        if (pending != null) {
+            pending.cancel(false);
+            pendingToken.cancel();
+            pending = null;
+            pendingToken = null;
+        }
+    }
+
+    /**
+     * {@return the solution of the state found without a search, if any} The solution cache is
+     * only consulted once the connector has been created.
+     */
+    private synchronized Optional<List<TwoPhaseMove<Position>>> knownSolution(PuzzleState state) {
+        int index = pathIndices.getOrDefault(state.encode(), -1);
+        if (index >= 0) {
+            return Optional.of(path.subList(index, path.size()));
+        }
+        var ready = connector.getNow(null);
+        if (ready == null) {
+            return Optional.empty();
+        }
+        var cache = ready.getCache().filter(c -> c.covers(state));
+        if (cache.isPresent()) {
+            var moves = cache.get().get(state);
+            if (moves.isPresent()) {
+                remember(state, moves.get());
+                return moves;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Remembers the path of a solution as the last solution found.
+     *
+     * @param state the initial state of the path
+     * @param moves the moves of the solution
+     */
+    private synchronized void remember(PuzzleState state, List<TwoPhaseMove<Position>> moves) {
+        var indices = new LongIntHashMap();
+        var current = state.clone();
+        for (int i = 0; i < moves.size(); i++) {
+            indices.putIfAbsent(current.encode(), i);
+            current.makeMove(moves.get(i));
+        }
+        path = List.copyOf(moves);
+        pathIndices = indices;
+    }
+
+    /**
+     * Cancels the pending request, stops the background threads, and closes the solution cache of
+     * the connector if the engine created the connector.
+     */
+    @Override
+    public void close() {
+        cancel();
+        executor.shutdownNow();
+        if (ownsConnector) {
+            connector.thenAccept(c -> c.getCache().ifPresent(cache -> {
+                try {
+                    cache.close();
+                } catch (IOException e) {
+                    // Nothing is left to be done with the cache.
+                }
+            }));
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package puzzle.model;
+
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.solver.BreadthFirstSearch;
+import puzzle.solver.Node;
+import puzzle.solver.ParallelBreadthFirstSearch;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * The {@code ParallelScalingReport} class measures how the parallel breadth-first search scales
+ * with the number of threads. It solves the puzzle with the sequential solver and with the
+ * parallel solver at 1, 2, 4, 8 and N threads, where N is the number of available processors,
+ * and prints the median time and the speedup over the sequential solver for each of them.
+ *
+ * <p>The number of measured runs can be given as the first command-line argument.</p>
+ */
+public class ParallelScalingReport {
+
+    private static final int WARMUP_RUNS = 5;
+
+    private static final int DEFAULT_RUNS = 15;
+
+    public static void main(String[] args) {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RUNS;
+        int processors = Runtime.getRuntime().availableProcessors();
+        var threadCounts = new TreeSet<>(List.of(1, 2, 4, 8, processors));
+
+        int length = new BreadthFirstSearch<TwoPhaseMove<Position>>().solve(new PuzzleState())
+                .orElseThrow()
+                .getDepth();
+        double sequential = medianMillis(runs,
+                () -> new BreadthFirstSearch<TwoPhaseMove<Position>>().solve(new PuzzleState()).orElseThrow());
+
+        System.out.printf("Processors: %d, solution length: %d, runs: %d%n", processors, length, runs);
+        System.out.printf("%-12s %12s %10s%n", "threads", "median ms", "speedup");
+        System.out.printf("%-12s %12.3f %10.2f%n", "sequential", sequential, 1.0);
+        for (int threads : threadCounts) {
+            var solver = new ParallelBreadthFirstSearch<TwoPhaseMove<Position>>(threads);
+            int parallelLength = solver.solve(new PuzzleState()).orElseThrow().getDepth();
+            if (parallelLength != length) {
+                throw new IllegalStateException("Solution length " + parallelLength + " at " + threads
+                        + " threads differs from the sequential " + length);
+            }
+            double millis = medianMillis(runs, () -> solver.solve(new PuzzleState()).orElseThrow());
+            System.out.printf("%-12d %12.3f %10.2f%n", threads, millis, sequential / millis);
+        }
+    }
+
+    /**
+     * Runs the solver a number of times after a warmup, and returns the median of the times.
+     *
+     * @param runs the number of measured runs
+     * @param solve the solver to run
+     * @return the median time in milliseconds
+     */
+    private static double medianMillis(int runs, Supplier<Node<TwoPhaseMove<Position>>> solve) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            solve.get();
+        }
+        double[] times = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            solve.get();
+            times[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(times);
+        return times[runs / 2];
+    }
+}
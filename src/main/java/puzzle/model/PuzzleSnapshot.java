@@ -0,0 +1,80 @@
+package puzzle.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The {@code PuzzleSnapshot} record is an immutable value of a state of the puzzle: the board and
+ * the {@linkplain PuzzleState#encode() code} of the stones on it. Unlike {@link PuzzleState}, a
+ * snapshot is thread-safe, thus it can be shared between threads, e.g., between a solver and a
+ * user interface. It does not depend on JavaFX.
+ *
+ * @param spec the board of the state
+ * @param code the code of the state
+ * @see PuzzleState#snapshot()
+ */
+public record PuzzleSnapshot(BoardSpec spec, long code) {
+
+    /**
+     * Creates a {@code PuzzleSnapshot} object.
+     *
+     * @param spec the board of the state
+     * @param code the code of the state
+     * @throws IllegalArgumentException if the code is not the code of a state of the board
+     */
+    public PuzzleSnapshot {
+        Objects.requireNonNull(spec);
+        PuzzleState.decode(spec, code);
+    }
+
+    /**
+     * {@return a new mutable state equal to the snapshot}
+     */
+    public PuzzleState toState() {
+        return PuzzleState.decode(spec, code);
+    }
+
+    /**
+     * {@return whether the puzzle is solved in the state}
+     */
+    public boolean isSolved() {
+        return toState().isSolved();
+    }
+
+    /**
+     * Retrieves the square at the specified position on the board.
+     *
+     * @param position the position of the square
+     * @return the {@code Square} at the specified position
+     */
+    public Square getSquare(Position position) {
+        return toState().getSquare(position);
+    }
+
+    /**
+     * Returns the positions of the squares that differ between this snapshot and another
+     * snapshot of the same board.
+     *
+     * @param other the other snapshot
+     * @return the positions of the squares that differ, in row-major order
+     * @throws IllegalArgumentException if the snapshots belong to different boards
+     */
+    public List<Position> changedPositions(PuzzleSnapshot other) {
+        if (!spec.hasSameStates(other.spec)) {
+            throw new IllegalArgumentException("The snapshots belong to different boards");
+        }
+        var positions = new ArrayList<Position>();
+        if (code == other.code) {
+            return positions;
+        }
+        var state = toState();
+        var otherState = other.toState();
+        long changed = (state.redMask() ^ otherState.redMask()) | (state.blueMask() ^ otherState.blueMask());
+        for (; changed != 0; changed &= changed - 1) {
+            positions.add(spec.positionOf(Long.numberOfTrailingZeros(changed)));
+        }
+        return positions;
+    }
+
+}
@@ -1,74 +1,139 @@
 package puzzle.model;
 
-import javafx.beans.property.ReadOnlyObjectProperty;
+import puzzle.EncodableState;
+import puzzle.ReversibleState;
 import puzzle.State;
 import puzzle.TwoPhaseMoveState;
-import javafx.beans.property.ReadOnlyObjectWrapper;
-import java.util.HashSet;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
+import static puzzle.model.BoardSpec.DOWN;
+import static puzzle.model.BoardSpec.LEFT;
+import static puzzle.model.BoardSpec.RIGHT;
+import static puzzle.model.BoardSpec.UP;
+
 
 /**
  * The {@code PuzzleState} class represents the state of the puzzle game board.
- * It implements the {@link puzzle.State} and {@link puzzle.TwoPhaseMoveState} interfaces.
+ * It implements the {@link puzzle.State}, {@link puzzle.TwoPhaseMoveState},
+ * {@link puzzle.EncodableState} and {@link puzzle.ReversibleState} interfaces.
+ *
+ * <p>The board is described by a {@link BoardSpec}. It is stored as bitboards: cell
+ * {@code (i, j)} is bit {@code i * cols + j}, and the red stones and the blue stones are each
+ * kept in a {@code long} mask. Moves, the win check and the legality checks are computed from
+ * these masks and from the neighbor masks of the board, so they neither scan the whole board nor
+ * build strings.</p>
+ *
+ * <p>Moves are {@link TwoPhaseMove} objects of {@link Position}s. The moves between adjacent
+ * cells are created once per board and shared by all of its states, and each of them is
+ * identified by an index of the form {@code direction << 6 | from}. The set of legal moves is
+ * backed by one bit mask per direction, so applying and generating moves neither parses nor
+ * allocates moves.</p>
+ *
+ * <p>Two states are equal if their boards are equal. The hash code is derived from a Zobrist
+ * hash that is updated by {@link #makeMove(TwoPhaseMove)} in constant time. Two states are
+ * equivalent if a symmetry of the board that preserves the goal maps one to the other, see
+ * {@link #canonicalCode()}.</p>
  *
+ * <p>The class does not depend on JavaFX, and a state is a single object, thus copying it is
+ * cheap. States are mutable and not thread-safe; an immutable {@link PuzzleSnapshot} of a state
+ * can be shared between threads instead.</p>
+ *
+ * @see BoardSpec
  * @see puzzle.State
  * @see puzzle.TwoPhaseMoveState
+ * @see puzzle.EncodableState
+ * @see puzzle.ReversibleState
  */
-public class PuzzleState implements TwoPhaseMoveState {
-
-    private ReadOnlyObjectWrapper<Square>[][] board;
+public class PuzzleState implements TwoPhaseMoveState<Position>, EncodableState<TwoPhaseMoveState.TwoPhaseMove<Position>>,
+        ReversibleState<TwoPhaseMoveState.TwoPhaseMove<Position>> {
 
     /**
-     * Constructs a new {@code PuzzleState} object with an initial board configuration.
+     * The binomial coefficients, {@code BINOMIALS[n][k]} is {@code n} choose {@code k}.
      */
-    public PuzzleState() {
-        this.board = new ReadOnlyObjectWrapper[3][5];
-        initializeBoard();
-        initializeInvalidBoard();
-        initializeStones();
-    }
+    private static final long[][] BINOMIALS = new long[65][65];
 
-    private void initializeBoard() {
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                board[i][j] = new ReadOnlyObjectWrapper<>(Square.NONE); // Initialize with NONE
+    static {
+        for (int n = 0; n <= 64; n++) {
+            BINOMIALS[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
             }
         }
     }
 
-    private void initializeInvalidBoard() {
+    private final BoardSpec spec;
+    private long red;
+    private long blue;
+    private long zobrist;
 
-        board[0][1] = new ReadOnlyObjectWrapper<>(Square.BLOCK);
-        board[0][3] = new ReadOnlyObjectWrapper<>(Square.BLOCK);
-        board[2][1] = new ReadOnlyObjectWrapper<>(Square.BLOCK);
-        board[2][2] = new ReadOnlyObjectWrapper<>(Square.BLOCK);
-        board[2][3] = new ReadOnlyObjectWrapper<>(Square.BLOCK);
+    /**
+     * Constructs a new {@code PuzzleState} object with the initial state of the board returned by
+     * {@link BoardSpec#defaultSpec()}.
+     */
+    public PuzzleState() {
+        this(BoardSpec.defaultSpec());
+    }
 
+    /**
+     * Constructs a new {@code PuzzleState} object with the initial state of the board specified.
+     *
+     * @param spec the board of the puzzle
+     */
+    public PuzzleState(BoardSpec spec) {
+        this(spec, spec.redStartMask(), spec.blueStartMask());
     }
 
-    private void initializeStones() {
-        int numRows = board.length;
-        int numCols = board[0].length;
+    private PuzzleState(BoardSpec spec, long red, long blue) {
+        this(spec, red, blue, zobristOf(spec, red, blue));
+    }
 
-        for (int i = 0; i < numRows; i++) {
-            board[i][0].set(Square.RED);
-        }
+    private PuzzleState(BoardSpec spec, long red, long blue, long zobrist) {
+        this.spec = spec;
+        this.red = red;
+        this.blue = blue;
+        this.zobrist = zobrist;
+    }
 
-        for (int i = 0; i < numRows; i++) {
-            board[i][numCols - 1].set(Square.BLUE);
+    private static long zobristOf(BoardSpec spec, long red, long blue) {
+        long hash = 0L;
+        for (long stones = red; stones != 0; stones &= stones - 1) {
+            hash ^= spec.zobristKey(0, Long.numberOfTrailingZeros(stones));
+        }
+        for (long stones = blue; stones != 0; stones &= stones - 1) {
+            hash ^= spec.zobristKey(1, Long.numberOfTrailingZeros(stones));
         }
+        return hash;
     }
 
     /**
-     * Returns the property representing the square at the specified position on the game board.
-     *
-     * @param i the row index of the square
-     * @param j the column index of the square
-     * @return the {@code ReadOnlyObjectProperty} representing the square
+     * {@return the board of the puzzle}
      */
-    public ReadOnlyObjectProperty<Square> squareProperty(int i, int j) {
-        return board[i][j].getReadOnlyProperty();
+    public BoardSpec spec() {
+        return spec;
+    }
+
+    private long empty() {
+        return ~(red | blue | spec.blockMask()) & spec.boardMask();
+    }
+
+    private Square squareAt(int cell) {
+        long mask = 1L << cell;
+        if ((red & mask) != 0) {
+            return Square.RED;
+        }
+        if ((blue & mask) != 0) {
+            return Square.BLUE;
+        }
+        if ((spec.blockMask() & mask) != 0) {
+            return Square.BLOCK;
+        }
+        return Square.NONE;
     }
 
     /**
@@ -78,28 +143,221 @@ public class PuzzleState implements TwoPhaseMoveState {
      * @return the {@code Square} at the specified position
      */
     public Square getSquare(Position p) {
-        return board[p.row()][p.col()].get();
+        return squareAt(spec.cellOf(p));
     }
 
     /**
-     * Sets the square at the specified position on the game board.
+     * Checks if the game is solved, i.e., if every stone is in the goal region of its color.
      *
-     * @param p the position of the square
-     * @param square the {@code Square} to set
+     * @return {@code true} if the game is solved, {@code false} otherwise
      */
-    private void setSquare(Position p, Square square) {
-        board[p.row()][p.col()].set(square);
+    @Override
+    public boolean isSolved() {
+        return (red & ~spec.redGoalMask()) == 0 && (blue & ~spec.blueGoalMask()) == 0;
+    }
+
+    /**
+     * {@return the mask of the red stones}
+     */
+    long redMask() {
+        return red;
     }
 
     /**
-     * Checks if the game is solved.
+     * {@return the mask of the blue stones}
+     */
+    long blueMask() {
+        return blue;
+    }
+
+    /**
+     * {@return the mask of the blocks}
+     */
+    long blockMask() {
+        return spec.blockMask();
+    }
+
+    /**
+     * {@return the mask of the cells where the red stones must be moved}
+     */
+    long redGoalMask() {
+        return spec.redGoalMask();
+    }
+
+    /**
+     * {@return the mask of the cells where the blue stones must be moved}
+     */
+    long blueGoalMask() {
+        return spec.blueGoalMask();
+    }
+
+    /**
+     * {@return the number of states of the board with the same number of red and blue stones
+     * as this state}
+     */
+    long stateCount() {
+        int free = Long.bitCount(~spec.blockMask() & spec.boardMask());
+        int reds = Long.bitCount(red);
+        return BINOMIALS[free][reds] * BINOMIALS[free - reds][Long.bitCount(blue)];
+    }
+
+    /**
+     * Returns the rank of the state, i.e., its index among the states counted by
+     * {@link #stateCount()}. The red stones are ranked as a combination of the free cells, and
+     * the blue stones as a combination of the free cells not occupied by red stones.
      *
-     * @return {@code true} if the game is solved, {@code false} otherwise
+     * @return the rank of the state, which is less than {@link #stateCount()}
      */
-    @Override
-    public boolean isSolved() {
-        return (board[0][0].get() == Square.BLUE && board[1][0].get() == Square.BLUE && board[2][0].get() == Square.BLUE) &&
-                (board[0][4].get() == Square.RED && board[1][4].get() == Square.RED && board[2][4].get() == Square.RED);
+    long rank() {
+        long free = ~spec.blockMask() & spec.boardMask();
+        int freeCount = Long.bitCount(free);
+        int reds = Long.bitCount(red);
+        long blueRank = rankCombination(compress(blue, free & ~red));
+        return rankCombination(compress(red, free)) * BINOMIALS[freeCount - reds][Long.bitCount(blue)] + blueRank;
+    }
+
+    /**
+     * Returns the state of the same board whose rank is the one specified.
+     *
+     * @param rank the rank of the state, which must be less than {@link #stateCount()}
+     * @return the state of the rank specified
+     */
+    PuzzleState unrank(long rank) {
+        long free = ~spec.blockMask() & spec.boardMask();
+        int freeCount = Long.bitCount(free);
+        int reds = Long.bitCount(red);
+        int blues = Long.bitCount(blue);
+        long blueCombinations = BINOMIALS[freeCount - reds][blues];
+        long newRed = expand(unrankCombination(rank / blueCombinations, reds), free);
+        long newBlue = expand(unrankCombination(rank % blueCombinations, blues), free & ~newRed);
+        return new PuzzleState(spec, newRed, newBlue);
+    }
+
+    /**
+     * {@return the bits of the value at the positions of the set bits of the mask, packed into
+     * the low bits of the result}
+     */
+    private static long compress(long value, long mask) {
+        long result = 0L;
+        int k = 0;
+        for (long rest = mask; rest != 0; rest &= rest - 1, k++) {
+            if ((value & Long.lowestOneBit(rest)) != 0) {
+                result |= 1L << k;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@return the low bits of the value placed at the positions of the set bits of the mask},
+     * i.e., the inverse of {@link #compress(long, long)}
+     */
+    private static long expand(long value, long mask) {
+        long result = 0L;
+        int k = 0;
+        for (long rest = mask; rest != 0; rest &= rest - 1, k++) {
+            if ((value & (1L << k)) != 0) {
+                result |= Long.lowestOneBit(rest);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@return the rank of a combination in the combinatorial number system}
+     */
+    private static long rankCombination(long combination) {
+        long rank = 0L;
+        int i = 1;
+        for (long rest = combination; rest != 0; rest &= rest - 1, i++) {
+            rank += BINOMIALS[Long.numberOfTrailingZeros(rest)][i];
+        }
+        return rank;
+    }
+
+    /**
+     * {@return the combination of {@code k} elements of the rank specified}
+     */
+    private static long unrankCombination(long rank, int k) {
+        long combination = 0L;
+        for (int i = k; i >= 1; i--) {
+            int p = i - 1;
+            while (BINOMIALS[p + 1][i] <= rank) {
+                p++;
+            }
+            rank -= BINOMIALS[p][i];
+            combination |= 1L << p;
+        }
+        return combination;
+    }
+
+    /**
+     * Returns all of the states of the board in which the puzzle is solved, i.e., every
+     * placement of the stones of this state in the goal regions. Note that their number grows
+     * combinatorially with the size of the goal regions.
+     *
+     * @return the list of the goal states
+     */
+    public List<PuzzleState> goalStates() {
+        var goals = new ArrayList<PuzzleState>();
+        goalStateIterator().forEachRemaining(goals::add);
+        return goals;
+    }
+
+    /**
+     * Returns an iterator over the same states as {@link #goalStates()}, which creates each goal
+     * state only when it is reached, thus a search can bound the time and the memory spent on the
+     * goal states.
+     *
+     * @return an iterator over the goal states
+     */
+    public Iterator<PuzzleState> goalStateIterator() {
+        int reds = Long.bitCount(red);
+        int blues = Long.bitCount(blue);
+        long redGoal = spec.redGoalMask();
+        long blueGoal = spec.blueGoalMask();
+        long redCount = BINOMIALS[Long.bitCount(redGoal)][reds];
+        return new Iterator<>() {
+            private long redRank = -1;
+            private long goalRed;
+            private long freeBlue;
+            private long blueRank;
+            private long blueCount;
+
+            {
+                nextRed();
+            }
+
+            /**
+             * Moves on to the next placement of the red stones that leaves room for the blue ones.
+             */
+            private void nextRed() {
+                blueRank = 0;
+                blueCount = 0;
+                while (blueCount == 0 && ++redRank < redCount) {
+                    goalRed = expand(unrankCombination(redRank, reds), redGoal);
+                    freeBlue = blueGoal & ~goalRed;
+                    blueCount = BINOMIALS[Long.bitCount(freeBlue)][blues];
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return redRank < redCount;
+            }
+
+            @Override
+            public PuzzleState next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                var goal = new PuzzleState(spec, goalRed, expand(unrankCombination(blueRank, blues), freeBlue));
+                if (++blueRank == blueCount) {
+                    nextRed();
+                }
+                return goal;
+            }
+        };
     }
 
     /**
@@ -109,33 +367,14 @@ public class PuzzleState implements TwoPhaseMoveState {
      * @return {@code true} if the move is legal, {@code false} otherwise
      */
     @Override
-    public boolean isLegalMove(Object move) {
-        String moveStr = (String) move;
-        String[] coordinates = moveStr.split("-");
-        String[] srcIndices = coordinates[0].split(",");
-        String[] destIndices = coordinates[1].split(",");
-
-        int srcRow = Integer.parseInt(srcIndices[0]);
-        int srcCol = Integer.parseInt(srcIndices[1]);
-        int destRow = Integer.parseInt(destIndices[0]);
-        int destCol = Integer.parseInt(destIndices[1]);
-
-        // Check if source and destination positions are within bounds
-        if (srcRow < 0 || srcRow >= board.length || srcCol < 0 || srcCol >= board[0].length ||
-                destRow < 0 || destRow >= board.length || destCol < 0 || destCol >= board[0].length) {
+    public boolean isLegalMove(TwoPhaseMove<Position> move) {
+        int index = spec.indexOf(move);
+        if (index < 0) {
             return false;
         }
-
-        int rowDiff = Math.abs(destRow - srcRow);
-        int colDiff = Math.abs(destCol - srcCol);
-
-        // Check if the move is either a horizontal or vertical step
-        if ((board[srcRow][srcCol].get() == Square.RED || board[srcRow][srcCol].get() == Square.BLUE) &&
-                ((rowDiff == 1 && colDiff == 0) || (rowDiff == 0 && colDiff == 1))) {
-            // Check if the destination square is EMPTY
-            return board[destRow][destCol].get() == Square.NONE;
-        }
-        return false;
+        int from = index & 63;
+        int to = from + spec.delta(index >>> 6);
+        return ((red | blue) & (1L << from)) != 0 && (empty() & (1L << to)) != 0;
     }
 
 
@@ -145,77 +384,239 @@ public class PuzzleState implements TwoPhaseMoveState {
      * @param move the move to make
      */
     @Override
-    public void makeMove(Object move) {
-        String moves = (String) move;
-        String[] coordinates = moves.split("-");
-        String[] srcIndices = coordinates[0].split(",");
-        String[] destIndices = coordinates[1].split(",");
-
-        int srcRow = Integer.parseInt(srcIndices[0]);
-        int srcCol = Integer.parseInt(srcIndices[1]);
-        int destRow = Integer.parseInt(destIndices[0]);
-        int destCol = Integer.parseInt(destIndices[1]);
+    public void makeMove(TwoPhaseMove<Position> move) {
+        int index = spec.indexOf(move);
+        int from = index & 63;
+        moveStone(from, from + spec.delta(index >>> 6));
+    }
 
-        Square stone = board[srcRow][srcCol].get();
-        board[srcRow][srcCol].set(Square.NONE);
-        board[destRow][destCol].set(stone);
+    /**
+     * Takes back the specified move, i.e., moves the stone from the target of the move back to
+     * its source.
+     *
+     * @param move the move to take back
+     */
+    @Override
+    public void undoMove(TwoPhaseMove<Position> move) {
+        int index = spec.indexOf(move);
+        int from = index & 63;
+        moveStone(from + spec.delta(index >>> 6), from);
     }
 
+    /**
+     * Moves the stone on the source cell to the target cell. Nothing happens if there is no
+     * stone on the source cell.
+     *
+     * @param source the index of the source cell
+     * @param target the index of the target cell
+     */
+    private void moveStone(int source, int target) {
+        long change = (1L << source) | (1L << target);
+        if ((red & (1L << source)) != 0) {
+            red ^= change;
+            zobrist ^= spec.zobristKey(0, source) ^ spec.zobristKey(0, target);
+        } else if ((blue & (1L << source)) != 0) {
+            blue ^= change;
+            zobrist ^= spec.zobristKey(1, source) ^ spec.zobristKey(1, target);
+        }
+    }
 
     /**
-     * Returns a set of legal moves.
+     * Returns a set of legal moves. The set holds one bit mask per direction, whose bits are the
+     * cells of the stones that can be moved in that direction.
      *
      * @return a set of legal moves
      */
     @Override
-    public Set<String> getLegalMoves() {
-        Set<String> legalMoves = new HashSet<>();
+    public Set<TwoPhaseMove<Position>> getLegalMoves() {
+        long stones = red | blue;
+        long empty = empty();
+        int cols = spec.cols();
+        return new MoveSet(spec,
+                stones & (empty << cols),
+                stones & (empty >>> cols),
+                stones & (empty << 1) & ~spec.firstColumnMask(),
+                stones & (empty >>> 1) & ~spec.lastColumnMask());
+    }
 
-        int numRows = board.length;
-        int numCols = board[0].length;
+    /**
+     * Checks if it is legal to move from the specified position.
+     *
+     * @param from the position to move from
+     * @return {@code true} if it is legal to move from the specified position, {@code false} otherwise
+     */
+    @Override
+    public boolean isLegalToMoveFrom(Position from) {
+        if (!spec.contains(from)) {
+            return false;
+        }
+        int cell = spec.cellOf(from);
+        return ((red | blue) & (1L << cell)) != 0 && (spec.neighborMask(cell) & empty()) != 0;
+    }
 
-        for (int idx = 0; idx < numRows * numCols; idx++) {
-            int i = idx / numCols;
-            int j = idx % numCols;
 
-            if (board[i][j].get() == Square.RED || board[i][j].get() == Square.BLUE) {
+    /**
+     * Returns the code of the state. If the board has at most 32 cells, it is the red mask in the
+     * low bits and the blue mask shifted above it, otherwise the two masks are compressed to the
+     * free cells of the board first.
+     *
+     * @return the code of the state
+     */
+    @Override
+    public long encode() {
+        return code(red, blue);
+    }
 
-                if (i > 0 && board[i - 1][j].get() == Square.NONE) {
-                    legalMoves.add(i + "," + j + "-" + (i - 1) + "," + j);
-                }
+    /**
+     * Returns the state of the board specified whose code is the one specified, i.e., the inverse
+     * of {@link #encode()}.
+     *
+     * @param spec the board of the state
+     * @param code the code of the state
+     * @return the state
+     * @throws IllegalArgumentException if the code is not the code of a state of the board
+     */
+    static PuzzleState decode(BoardSpec spec, long code) {
+        int cells = spec.cellCount();
+        long free = ~spec.blockMask() & spec.boardMask();
+        long red;
+        long blue;
+        if (cells <= 32) {
+            red = code & ((1L << cells) - 1);
+            blue = code >>> cells;
+        } else {
+            int freeCount = Long.bitCount(free);
+            red = expand(code & ((1L << freeCount) - 1), free);
+            blue = expand(code >>> freeCount, free);
+        }
+        if ((red & blue) != 0 || ((red | blue) & ~free) != 0 || Long.bitCount(red) != spec.redCount()
+                || Long.bitCount(blue) != spec.blueCount()) {
+            throw new IllegalArgumentException("Not a code of a state of the board: " + code);
+        }
+        return new PuzzleState(spec, red, blue);
+    }
 
-                if (i + 1 < numRows && board[i + 1][j].get() == Square.NONE) {
-                    legalMoves.add(i + "," + j + "-" + (i + 1) + "," + j);
-                }
+    /**
+     * Returns the state of the same board whose code is the one specified.
+     *
+     * @param code the code of the state
+     * @return the state
+     * @throws IllegalArgumentException if the code is not the code of a state of the board
+     */
+    @Override
+    public PuzzleState decode(long code) {
+        return decode(spec, code);
+    }
 
-                if (j > 0 && board[i][j - 1].get() == Square.NONE) {
-                    legalMoves.add(i + "," + j + "-" + i + "," + (j - 1));
-                }
+    /**
+     * {@return an immutable snapshot of the state}
+     */
+    public PuzzleSnapshot snapshot() {
+        return new PuzzleSnapshot(spec, encode());
+    }
 
-                if (j + 1 < numCols && board[i][j + 1].get() == Square.NONE) {
-                    legalMoves.add(i + "," + j + "-" + i + "," + (j + 1));
-                }
-            }
+    /**
+     * Returns the code of the state that the move specified would create. It is computed from
+     * the masks of the stones, thus no state is created.
+     *
+     * @param move a legal move of the state
+     * @return the code of the state created by the move
+     */
+    @Override
+    public long encodeAfter(TwoPhaseMove<Position> move) {
+        long change = change(move);
+        return (red & change) != 0 ? code(red ^ change, blue) : code(red, blue ^ change);
+    }
+
+    private long code(long red, long blue) {
+        int cells = spec.cellCount();
+        if (cells <= 32) {
+            return red | (blue << cells);
         }
-        return legalMoves;
+        long free = ~spec.blockMask() & spec.boardMask();
+        return compress(red, free) | (compress(blue, free) << Long.bitCount(free));
     }
 
     /**
-     * Checks if it is legal to move from the specified position.
+     * Returns the canonical code of the state, i.e., the least code of the images of the state
+     * under the {@linkplain BoardSpec#symmetries() symmetries} of the board.
      *
-     * @param from the position to move from
-     * @return {@code true} if it is legal to move from the specified position, {@code false} otherwise
+     * @return the canonical code of the state
      */
     @Override
-    public boolean isLegalToMoveFrom(Object from) {
-        Square square = getSquare((Position) from);
-        int fromRow = ((Position) from).row();
-        int fromCol = ((Position) from).col();
+    public long canonicalCode() {
+        return canonicalCode(red, blue);
+    }
 
-        return (square == Square.RED || square == Square.BLUE)
-                && (getLegalMoves().toString()).contains(fromRow + "," + fromCol);
+    /**
+     * Returns the canonical code of the state that the move specified would create. It is
+     * computed from the masks of the stones, thus neither a state nor a set of moves is created.
+     *
+     * @param move a legal move of the state
+     * @return the canonical code of the state created by the move
+     */
+    @Override
+    public long canonicalCodeAfter(TwoPhaseMove<Position> move) {
+        long change = change(move);
+        return (red & change) != 0 ? canonicalCode(red ^ change, blue) : canonicalCode(red, blue ^ change);
     }
 
+    /**
+     * {@return the mask of the cell the move specified takes a stone from and of the cell it puts
+     * the stone on} Since the latter cell is empty, the stone is red if and only if the mask
+     * intersects the red mask.
+     */
+    private long change(TwoPhaseMove<Position> move) {
+        int index = spec.indexOf(move);
+        int from = index & 63;
+        return (1L << from) | (1L << (from + spec.delta(index >>> 6)));
+    }
+
+    private long canonicalCode(long red, long blue) {
+        long canonical = code(red, blue);
+        for (var symmetry : spec.symmetries()) {
+            canonical = Math.min(canonical, code(symmetry.red(red, blue), symmetry.blue(red, blue)));
+        }
+        return canonical;
+    }
+
+    /**
+     * {@return the state and its images under the symmetries of the board}
+     */
+    @Override
+    public List<PuzzleState> equivalentStates() {
+        var states = new ArrayList<PuzzleState>(spec.symmetries().size() + 1);
+        states.add(this);
+        for (var symmetry : spec.symmetries()) {
+            states.add(transform(symmetry));
+        }
+        return states;
+    }
+
+    /**
+     * {@return the image of the state under the symmetry specified}
+     *
+     * @param symmetry a symmetry of the board of the state
+     */
+    public PuzzleState transform(Symmetry symmetry) {
+        return new PuzzleState(spec, symmetry.red(red, blue), symmetry.blue(red, blue));
+    }
+
+    /**
+     * {@return the state equivalent to this state whose code is the canonical code}
+     */
+    PuzzleState canonical() {
+        var canonical = this;
+        long code = encode();
+        for (var symmetry : spec.symmetries()) {
+            long image = code(symmetry.red(red, blue), symmetry.blue(red, blue));
+            if (image < code) {
+                canonical = transform(symmetry);
+                code = image;
+            }
+        }
+        return canonical;
+    }
 
     /**
      * Creates a deep copy of the puzzle state.
@@ -224,31 +625,152 @@ public class PuzzleState implements TwoPhaseMoveState {
      */
     @Override
     public PuzzleState clone() {
-        // Create a new PuzzleState object
-        PuzzleState clonedState = new PuzzleState();
+        return new PuzzleState(spec, red, blue, zobrist);
+    }
 
-        // Copy the contents of the board array
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                clonedState.board[i][j].set(this.board[i][j].get());
-            }
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
         }
+        return (o instanceof PuzzleState other)
+                && red == other.red && blue == other.blue && spec.hasSameStates(other.spec);
+    }
 
-        return clonedState;
+    @Override
+    public int hashCode() {
+        return (int) (zobrist ^ (zobrist >>> 32));
     }
 
 
     /**
-     * Constructs a new {@code PuzzleState} with the specified board.
+     * Constructs a new {@code PuzzleState} with the specified board, whose size and blocks must
+     * match those of the board returned by {@link BoardSpec#defaultSpec()}.
      *
-     * @param board the board representing the state of the puzzle
+     * @param board the squares of the board, indexed by row and column
+     * @throws IllegalArgumentException if the board does not match the default board
      */
-    public PuzzleState(ReadOnlyObjectWrapper<Square>[][] board) {
-        this.board = board;
+    public PuzzleState(Square[][] board) {
+        this(BoardSpec.defaultSpec(), board);
     }
 
-}
+    /**
+     * Constructs a new {@code PuzzleState} of the board specified with the squares specified. The
+     * squares must match the size and the blocks of the board, and hold as many stones of each
+     * color as the board.
+     *
+     * @param spec the board of the puzzle
+     * @param board the squares of the board, indexed by row and column
+     * @throws IllegalArgumentException if the squares do not match the board
+     */
+    public PuzzleState(BoardSpec spec, Square[][] board) {
+        this.spec = spec;
+        int cols = spec.cols();
+        if (board.length != spec.rows() || Arrays.stream(board).anyMatch(row -> row.length != cols)) {
+            throw new IllegalArgumentException("The size of the board does not match " + spec.rows() + "x" + cols);
+        }
+        long blocks = 0L;
+        for (int cell = 0; cell < spec.cellCount(); cell++) {
+            switch (board[cell / cols][cell % cols]) {
+                case RED -> red |= 1L << cell;
+                case BLUE -> blue |= 1L << cell;
+                case BLOCK -> blocks |= 1L << cell;
+                case NONE -> { }
+            }
+        }
+        if (blocks != spec.blockMask()) {
+            throw new IllegalArgumentException("The blocks of the board do not match the board");
+        }
+        if (Long.bitCount(red) != spec.redCount() || Long.bitCount(blue) != spec.blueCount()) {
+            throw new IllegalArgumentException("The number of stones does not match the board");
+        }
+        this.zobrist = zobristOf(spec, red, blue);
+    }
+
+    /**
+     * A set of moves backed by one bit mask per direction. Bit {@code from} of mask
+     * {@code direction} stands for the move with index {@code direction << 6 | from}.
+     */
+    private static final class MoveSet extends AbstractSet<TwoPhaseMove<Position>> {
+
+        private final BoardSpec spec;
+        private final long[] masks;
+
+        MoveSet(BoardSpec spec, long up, long down, long left, long right) {
+            this.spec = spec;
+            this.masks = new long[] {up, down, left, right};
+        }
+
+        @Override
+        public int size() {
+            return Long.bitCount(masks[UP]) + Long.bitCount(masks[DOWN])
+                    + Long.bitCount(masks[LEFT]) + Long.bitCount(masks[RIGHT]);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return (masks[UP] | masks[DOWN] | masks[LEFT] | masks[RIGHT]) == 0;
+        }
 
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            if (!(o instanceof TwoPhaseMove<?> move) || !(move.from() instanceof Position)
+                    || !(move.to() instanceof Position)) {
+                return false;
+            }
+            int index = spec.indexOf((TwoPhaseMove<Position>) move);
+            return index >= 0 && (masks[index >>> 6] & (1L << (index & 63))) != 0;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            @SuppressWarnings("unchecked")
+            int index = spec.indexOf((TwoPhaseMove<Position>) o);
+            masks[index >>> 6] &= ~(1L << (index & 63));
+            return true;
+        }
+
+        @Override
+        public Iterator<TwoPhaseMove<Position>> iterator() {
+            return new Iterator<>() {
+
+                private final long[] remaining = masks.clone();
+                private int direction = UP;
+                private int last = -1;
 
+                @Override
+                public boolean hasNext() {
+                    while (direction < RIGHT && remaining[direction] == 0) {
+                        direction++;
+                    }
+                    return remaining[direction] != 0;
+                }
 
+                @Override
+                public TwoPhaseMove<Position> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int from = Long.numberOfTrailingZeros(remaining[direction]);
+                    remaining[direction] &= remaining[direction] - 1;
+                    last = direction << 6 | from;
+                    return spec.move(last);
+                }
 
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    masks[last >>> 6] &= ~(1L << (last & 63));
+                    last = -1;
+                }
+            };
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package puzzle.model;
+
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.solver.Node;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The {@code Solution} record represents a solution of the puzzle: the state it starts from and
+ * the moves that lead to a goal state. A solution can be {@linkplain #replay() replayed} without
+ * searching again, and written with a {@link SolutionWriter}.
+ *
+ * @param start the state the solution starts from
+ * @param moves the moves of the solution, in the order they are applied
+ */
+public record Solution(PuzzleSnapshot start, List<TwoPhaseMove<Position>> moves) {
+
+    /**
+     * Creates a {@code Solution} object.
+     *
+     * @param start the state the solution starts from
+     * @param moves the moves of the solution, in the order they are applied
+     */
+    public Solution {
+        Objects.requireNonNull(start);
+        moves = List.copyOf(moves);
+    }
+
+    /**
+     * Creates a {@code Solution} object from the path of a node of a search.
+     *
+     * @param node the node of a goal state, whose root node represents the state the solution
+     *             starts from
+     * @return the solution
+     */
+    public static Solution of(Node<TwoPhaseMove<Position>> node) {
+        var root = (PuzzleState) node.getPath().get(0).getState();
+        return new Solution(root.snapshot(), node.getMoves());
+    }
+
+    /**
+     * {@return the number of moves of the solution}
+     */
+    public int length() {
+        return moves.size();
+    }
+
+    /**
+     * Replays the solution from the state it starts from.
+     *
+     * @return the node of the last state, whose parent chain holds the states of the solution
+     * @throws IllegalArgumentException if a move of the solution is not legal
+     */
+    public Node<TwoPhaseMove<Position>> replay() {
+        var current = start.toState();
+        var node = new Node<TwoPhaseMove<Position>>(current.clone());
+        for (var move : moves) {
+            if (!current.isLegalMove(move)) {
+                throw new IllegalArgumentException("Illegal move: " + move);
+            }
+            current.makeMove(move);
+            node = new Node<>(current.clone(), node, move);
+        }
+        return node;
+    }
+
+}
@@ -0,0 +1,374 @@
+package puzzle.model;
+
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The {@code SolutionCache} class caches the solutions of the states of a board, keyed by the
+ * codes of the states. When a solution is stored, every state along its path is stored with the
+ * rest of the path, thus a solution found for a state also serves every later state on its path.
+ *
+ * <p>The cache has two tiers:</p>
+ * <ul>
+ * <li>a bounded in-heap tier, which evicts the least recently used states when it is full,
+ * and</li>
+ * <li>an optional on-disk tier, which is an append-only file that survives restarts. Its index
+ * is read into memory when the file is opened, and the states found on disk are promoted to
+ * the in-heap tier.</li>
+ * </ul>
+ *
+ * <p>The file starts with the magic number {@code PZSC}, the format version and the text of the
+ * board, followed by one record per solution: the number of moves {@code n} as an {@code int},
+ * the codes of the {@code n + 1} states of the path as {@code long}s, and the indices of the
+ * moves as one byte each.</p>
+ *
+ * <p>The methods of the class are thread-safe.</p>
+ */
+public class SolutionCache implements Closeable {
+
+    /**
+     * The system property that names the file of the on-disk tier used by
+     * {@link #openDefault(BoardSpec)}.
+     */
+    public static final String PATH_PROPERTY = "puzzle.cache";
+
+    /**
+     * The number of states kept in the in-heap tier by {@link #openDefault(BoardSpec)}.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final int MAGIC = 0x505A5343;
+    private static final int VERSION = 1;
+
+    /**
+     * The metrics of a cache.
+     *
+     * @param memoryHits the number of lookups answered by the in-heap tier
+     * @param diskHits the number of lookups answered by the on-disk tier
+     * @param misses the number of lookups not answered by either tier
+     * @param evictions the number of states evicted from the in-heap tier
+     * @param memorySize the number of states in the in-heap tier
+     * @param diskSize the number of states in the on-disk tier
+     */
+    public record Metrics(long memoryHits, long diskHits, long misses, long evictions, int memorySize,
+                          int diskSize) {
+    }
+
+    /**
+     * The moves from a state to the goal: the moves of a stored path starting at an offset.
+     */
+    private record Suffix(List<TwoPhaseMove<Position>> path, int offset) {
+
+        List<TwoPhaseMove<Position>> moves() {
+            return path.subList(offset, path.size());
+        }
+    }
+
+    /**
+     * The location of a state in the file: the position of the record and the index of the state
+     * in its path.
+     */
+    private record DiskEntry(long position, int index) {
+    }
+
+    private final BoardSpec spec;
+    private final int capacity;
+    private final Map<Long, Suffix> memory;
+    private final FileChannel channel;
+    private final Map<Long, DiskEntry> index = new HashMap<>();
+
+    private long memoryHits;
+    private long diskHits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a cache with an in-heap tier only.
+     *
+     * @param spec the board of the states
+     * @param capacity the largest number of states kept in the in-heap tier
+     */
+    public SolutionCache(BoardSpec spec, int capacity) {
+        this(spec, capacity, null);
+    }
+
+    private SolutionCache(BoardSpec spec, int capacity, FileChannel channel) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+        }
+        this.spec = spec;
+        this.capacity = capacity;
+        this.channel = channel;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Suffix> eldest) {
+                if (size() > SolutionCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Creates a cache with an in-heap tier and an on-disk tier. The file is created if it does not
+     * exist.
+     *
+     * @param spec the board of the states
+     * @param capacity the largest number of states kept in the in-heap tier
+     * @param path the path of the file of the on-disk tier
+     * @return the cache
+     * @throws IOException if an I/O error occurs, or the file is not a cache file of the board
+     */
+    public static SolutionCache open(BoardSpec spec, int capacity, Path path) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            var cache = new SolutionCache(spec, capacity, channel);
+            if (channel.size() == 0) {
+                cache.writeHeader();
+            } else {
+                cache.readIndex(path);
+            }
+            return cache;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a cache with {@value #DEFAULT_CAPACITY} states in its in-heap tier, and with an
+     * on-disk tier if the {@value #PATH_PROPERTY} system property names a file that can be opened.
+     *
+     * @param spec the board of the states
+     * @return the cache
+     */
+    public static SolutionCache openDefault(BoardSpec spec) {
+        var path = System.getProperty(PATH_PROPERTY);
+        if (path != null && !path.isBlank()) {
+            try {
+                return open(spec, DEFAULT_CAPACITY, Path.of(path));
+            } catch (IOException e) {
+                // Fall back to the in-heap tier.
+            }
+        }
+        return new SolutionCache(spec, DEFAULT_CAPACITY);
+    }
+
+    private void writeHeader() throws IOException {
+        byte[] text = spec.toString().getBytes(StandardCharsets.UTF_8);
+        var header = ByteBuffer.allocate(3 * Integer.BYTES + text.length);
+        header.putInt(MAGIC).putInt(VERSION).putInt(text.length).put(text).flip();
+        write(header, 0);
+    }
+
+    private void readIndex(Path path) throws IOException {
+        var header = read(0, 3 * Integer.BYTES);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a solution cache file: " + path);
+        }
+        int length = header.getInt();
+        long position = 3 * Integer.BYTES + length;
+        try {
+            var text = new String(read(3 * Integer.BYTES, length).array(), StandardCharsets.UTF_8);
+            if (!BoardSpec.parse(text).hasSameStates(spec)) {
+                throw new IOException("The solution cache file belongs to another board: " + path);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt solution cache file: " + path, e);
+        }
+        long size = channel.size();
+        while (position + Integer.BYTES <= size) {
+            int moves = read(position, Integer.BYTES).getInt();
+            long recordSize = recordSize(moves);
+            if (moves < 0 || position + recordSize > size) {
+                // A record cut short by a crash is ignored, and overwritten by the next one.
+                break;
+            }
+            var codes = read(position + Integer.BYTES, (moves + 1) * Long.BYTES);
+            for (int i = 0; i <= moves; i++) {
+                index.putIfAbsent(codes.getLong(), new DiskEntry(position, i));
+            }
+            position += recordSize;
+        }
+        channel.truncate(position);
+    }
+
+    private static long recordSize(int moves) {
+        return Integer.BYTES + (moves + 1L) * Long.BYTES + moves;
+    }
+
+    /**
+     * Returns the moves that solve the puzzle from the state specified.
+     *
+     * @param state the state
+     * @return an {@code Optional} describing the moves, or an empty {@code Optional} if the
+     *         solution of the state is not cached
+     * @throws IllegalArgumentException if the state does not belong to the board of the cache
+     */
+    public synchronized Optional<List<TwoPhaseMove<Position>>> get(PuzzleState state) {
+        checkBoard(state);
+        long code = state.encode();
+        var suffix = memory.get(code);
+        if (suffix != null) {
+            memoryHits++;
+            return Optional.of(suffix.moves());
+        }
+        var entry = index.get(code);
+        if (entry != null && channel != null) {
+            try {
+                var moves = promote(entry);
+                diskHits++;
+                return Optional.of(moves);
+            } catch (IOException e) {
+                // Treat an unreadable record as a miss.
+            }
+        }
+        misses++;
+        return Optional.empty();
+    }
+
+    /**
+     * Reads a record from the file, and stores its states from the index of the entry onwards in
+     * the in-heap tier.
+     *
+     * @return the moves from the state of the entry
+     */
+    private List<TwoPhaseMove<Position>> promote(DiskEntry entry) throws IOException {
+        int count = read(entry.position(), Integer.BYTES).getInt();
+        var record = read(entry.position() + Integer.BYTES, (int) recordSize(count) - Integer.BYTES);
+        long[] codes = new long[count + 1];
+        for (int i = 0; i <= count; i++) {
+            codes[i] = record.getLong();
+        }
+        var moves = new ArrayList<TwoPhaseMove<Position>>(count);
+        for (int i = 0; i < count; i++) {
+            moves.add(spec.move(record.get() & 0xFF));
+        }
+        var path = List.copyOf(moves.subList(entry.index(), count));
+        for (int i = entry.index(); i <= count; i++) {
+            memory.put(codes[i], new Suffix(path, i - entry.index()));
+        }
+        return path;
+    }
+
+    /**
+     * Stores the solution of a state, and the rest of the solution for every later state on its
+     * path. The states already stored keep their solutions.
+     *
+     * @param state the state
+     * @param moves the moves that solve the puzzle from the state
+     * @throws IllegalArgumentException if the state does not belong to the board of the cache, or
+     *         the moves do not solve the puzzle from the state
+     */
+    public synchronized void put(PuzzleState state, List<TwoPhaseMove<Position>> moves) {
+        checkBoard(state);
+        var path = List.copyOf(moves);
+        long[] codes = new long[path.size() + 1];
+        var current = state.clone();
+        codes[0] = current.encode();
+        for (int i = 0; i < path.size(); i++) {
+            if (!current.isLegalMove(path.get(i))) {
+                throw new IllegalArgumentException("Illegal move: " + path.get(i));
+            }
+            current.makeMove(path.get(i));
+            codes[i + 1] = current.encode();
+        }
+        if (!current.isSolved()) {
+            throw new IllegalArgumentException("The moves do not solve the puzzle");
+        }
+        for (int i = 0; i <= path.size(); i++) {
+            memory.putIfAbsent(codes[i], new Suffix(path, i));
+        }
+        if (channel != null && !index.containsKey(codes[0])) {
+            try {
+                append(codes, path);
+            } catch (IOException e) {
+                // The in-heap tier still holds the solution.
+            }
+        }
+    }
+
+    private void append(long[] codes, List<TwoPhaseMove<Position>> path) throws IOException {
+        long position = channel.size();
+        var record = ByteBuffer.allocate((int) recordSize(path.size()));
+        record.putInt(path.size());
+        for (long code : codes) {
+            record.putLong(code);
+        }
+        for (var move : path) {
+            record.put((byte) spec.indexOf(move));
+        }
+        write(record.flip(), position);
+        for (int i = 0; i < codes.length; i++) {
+            index.putIfAbsent(codes[i], new DiskEntry(position, i));
+        }
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        var buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of the solution cache file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private void write(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Checks if the state specified belongs to the board of the cache.
+     *
+     * @param state the state to check
+     * @return {@code true} if the solution of the state can be cached
+     */
+    public boolean covers(PuzzleState state) {
+        return spec.hasSameStates(state.spec());
+    }
+
+    private void checkBoard(PuzzleState state) {
+        if (!covers(state)) {
+            throw new IllegalArgumentException("The state belongs to another board");
+        }
+    }
+
+    /**
+     * {@return the metrics of the cache}
+     */
+    public synchronized Metrics metrics() {
+        return new Metrics(memoryHits, diskHits, misses, evictions, memory.size(), index.size());
+    }
+
+    /**
+     * Closes the file of the on-disk tier, if any. The in-heap tier remains usable.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+package puzzle.model;
+
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The {@code SolutionReader} class reads the solutions written by
+ * {@link SolutionWriter#binary(java.io.OutputStream, BoardSpec)}.
+ *
+ * <p>The stream starts with the magic number {@code PZSL}, the format version and the text of the
+ * board, followed by one record per solution: the {@linkplain PuzzleState#encode() code} of the
+ * state it starts from as a {@code long}, the number of moves as an {@code int}, and the indices
+ * of the moves as one byte each.</p>
+ */
+public class SolutionReader implements Closeable {
+
+    static final int MAGIC = 0x505A534C;
+    static final int VERSION = 1;
+
+    private final DataInputStream in;
+    private final BoardSpec spec;
+
+    private SolutionReader(DataInputStream in, BoardSpec spec) {
+        this.in = in;
+        this.spec = spec;
+    }
+
+    /**
+     * Reads the header of the stream specified, and returns a reader of its solutions.
+     *
+     * @param in the stream to read from
+     * @return the reader
+     * @throws IOException if an I/O error occurs, or the stream is not in the binary format
+     */
+    public static SolutionReader open(InputStream in) throws IOException {
+        var data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+            throw new IOException("Not a solution file");
+        }
+        byte[] text = new byte[data.readInt()];
+        data.readFully(text);
+        try {
+            return new SolutionReader(data, BoardSpec.parse(new String(text, StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt solution file", e);
+        }
+    }
+
+    /**
+     * {@return the board of the solutions}
+     */
+    public BoardSpec spec() {
+        return spec;
+    }
+
+    /**
+     * Reads the next solution.
+     *
+     * @return an {@code Optional} describing the solution, or an empty {@code Optional} at the
+     *         end of the stream
+     * @throws IOException if an I/O error occurs, or the stream is corrupt
+     */
+    public Optional<Solution> read() throws IOException {
+        long code;
+        try {
+            code = in.readLong();
+        } catch (EOFException e) {
+            return Optional.empty();
+        }
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Corrupt solution file");
+        }
+        byte[] indices = new byte[length];
+        in.readFully(indices);
+        var moves = new ArrayList<TwoPhaseMove<Position>>(length);
+        try {
+            for (byte index : indices) {
+                var move = spec.move(index & 0xFF);
+                if (move == null) {
+                    throw new IOException("Corrupt solution file");
+                }
+                moves.add(move);
+            }
+            return Optional.of(new Solution(new PuzzleSnapshot(spec, code), moves));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt solution file", e);
+        }
+    }
+
+    /**
+     * Returns a sequential stream of the remaining solutions, which are read lazily.
+     *
+     * @return the stream of the solutions
+     * @throws UncheckedIOException if an I/O error occurs while the stream is consumed
+     */
+    public Stream<Solution> solutions() {
+        var spliterator = new Spliterators.AbstractSpliterator<Solution>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Solution> action) {
+                try {
+                    var solution = read();
+                    solution.ifPresent(action);
+                    return solution.isPresent();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+}
@@ -0,0 +1,126 @@
+package puzzle.model;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The {@code SolutionWriter} interface writes solutions to a stream one after the other, so that
+ * any number of solutions can be written without holding them in memory. The writers buffer their
+ * output; {@link #close()} flushes and closes the stream.
+ *
+ * <p>The following formats are provided:</p>
+ * <ul>
+ * <li>{@link #text(OutputStream)}: one line per solution, the number of moves followed by the
+ * moves in the {@code srcRow,srcCol-destRow,destCol} form,</li>
+ * <li>{@link #jsonLines(OutputStream)}: one JSON object per line, and</li>
+ * <li>{@link #binary(OutputStream, BoardSpec)}: a compact format with one byte per move, which
+ * can be read back with a {@link SolutionReader}.</li>
+ * </ul>
+ */
+public interface SolutionWriter extends Closeable {
+
+    /**
+     * Writes a solution.
+     *
+     * @param solution the solution
+     * @throws IOException if an I/O error occurs
+     */
+    void write(Solution solution) throws IOException;
+
+    /**
+     * Flushes the buffered output.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void flush() throws IOException;
+
+    /**
+     * {@return a writer of the text format to the stream specified}
+     *
+     * @param out the stream to write to
+     */
+    static SolutionWriter text(OutputStream out) {
+        var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        return new SolutionWriter() {
+            @Override
+            public void write(Solution solution) throws IOException {
+                writer.write(Integer.toString(solution.length()));
+                writer.write(':');
+                for (var move : solution.moves()) {
+                    writer.write(' ');
+                    writer.write(move.from() + "-" + move.to());
+                }
+                writer.newLine();
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writer.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.close();
+            }
+        };
+    }
+
+    /**
+     * Returns a writer of the JSON Lines format to the stream specified. Each solution is written
+     * as an object of the form
+     * {@code {"start":code,"length":n,"moves":[[fromRow,fromCol,toRow,toCol],...]}}, where
+     * {@code code} is the {@linkplain PuzzleState#encode() code} of the state it starts from. The
+     * lines end with {@code \n} on every platform, as the format requires.
+     *
+     * @param out the stream to write to
+     * @return the writer
+     */
+    static SolutionWriter jsonLines(OutputStream out) {
+        var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        return new SolutionWriter() {
+            @Override
+            public void write(Solution solution) throws IOException {
+                var line = new StringBuilder(32 + 16 * solution.length())
+                        .append("{\"start\":").append(solution.start().code())
+                        .append(",\"length\":").append(solution.length())
+                        .append(",\"moves\":[");
+                for (int i = 0; i < solution.length(); i++) {
+                    var move = solution.moves().get(i);
+                    line.append(i == 0 ? "[" : ",[").append(move.from().row()).append(',').append(move.from().col())
+                            .append(',').append(move.to().row()).append(',').append(move.to().col())
+                            .append(']');
+                }
+                writer.append(line).append("]}\n");
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writer.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.close();
+            }
+        };
+    }
+
+    /**
+     * Returns a writer of the binary format to the stream specified. The header is written at
+     * once, see {@link SolutionReader} for the format.
+     *
+     * @param out the stream to write to
+     * @param spec the board of the solutions
+     * @return the writer
+     * @throws IOException if an I/O error occurs
+     */
+    static SolutionWriter binary(OutputStream out, BoardSpec spec) throws IOException {
+        return new BinarySolutionWriter(new BufferedOutputStream(out), spec);
+    }
+
+}
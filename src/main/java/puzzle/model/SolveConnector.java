@@ -1,27 +1,83 @@
 package puzzle.model;
 
-import puzzle.model.PuzzleState;
-import puzzle.solver.BreadthFirstSearch;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.solver.BidirectionalBreadthFirstSearch;
 import puzzle.solver.Node;
+import puzzle.solver.SolveRequest;
+import puzzle.solver.SolveResult;
 
 import java.util.Optional;
 
 /**
  * The {@code SolveConnector} class provides functionality to solve a puzzle using the Breadth-First Search algorithm.
- * It integrates with the {@link puzzle.solver.BreadthFirstSearch} class and handles the solution process.
+ * It integrates with the {@link puzzle.solver.BidirectionalBreadthFirstSearch} class, which searches from the
+ * initial state and from the goal states at the same time, and handles the solution process.
  *
- * @see puzzle.solver.BreadthFirstSearch
+ *
+ * <p>If a {@link DistanceDatabase} is available for the board, the solutions are read from the
+ * database instead of being searched for. If the board has a
+ * {@linkplain BoardSpec#startToGoalSymmetry() symmetry mapping the initial state to the goal},
+ * as the stock board does, then the solver searches from the initial state only, and mirrors the
+ * search for the backward direction. The solutions found by the solver are kept in a
+ * {@link SolutionCache}, so repeated requests for the same state, or for a later state on a
+ * solution already found, are answered without a search.</p>
+ *
+ * <p>A search can be bounded by the budgets of a {@link SolveRequest}, see
+ * {@link #solvePuzzle(PuzzleState, SolveRequest)}.</p>
+ *
+ * @see puzzle.solver.BidirectionalBreadthFirstSearch
+ * @see DistanceDatabase
  * @see puzzle.solver.Node
  */
 public class SolveConnector {
 
-    private final BreadthFirstSearch<String> solver;
+    private final BidirectionalBreadthFirstSearch<TwoPhaseMove<Position>> solver;
+
+    private final DistanceDatabase database;
+
+    private final SolutionCache cache;
 
     /**
-     * Constructs a new {@code SolveConnector} with a Breadth-First Search solver.
+     * Constructs a new {@code SolveConnector} with a bidirectional Breadth-First Search solver, with
+     * the distance database returned by {@link DistanceDatabase#openDefault()}, if any, and with
+     * the solution cache returned by {@link SolutionCache#openDefault(BoardSpec)} for the default
+     * board.
      */
     public SolveConnector() {
-        this.solver = new BreadthFirstSearch<>();
+        this(DistanceDatabase.openDefault().orElse(null), SolutionCache.openDefault(BoardSpec.defaultSpec()));
+    }
+
+    /**
+     * Constructs a new {@code SolveConnector} with a bidirectional Breadth-First Search solver and the
+     * distance database specified, without a solution cache.
+     *
+     * @param database the distance database to be used, or {@code null} to always search
+     */
+    public SolveConnector(DistanceDatabase database) {
+        this(database, null);
+    }
+
+    /**
+     * Constructs a new {@code SolveConnector} with a bidirectional Breadth-First Search solver, and the
+     * distance database and the solution cache specified.
+     *
+     * @param database the distance database to be used, or {@code null} to always search
+     * @param cache the cache of the solutions found by the solver, or {@code null} to not cache them
+     */
+    public SolveConnector(DistanceDatabase database, SolutionCache cache) {
+        this.solver = new BidirectionalBreadthFirstSearch<>();
+        this.database = database;
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the solution cache of the connector.
+     *
+     * @return an {@code Optional} describing the solution cache, or an empty {@code Optional} if
+     *         the solutions are not cached
+     */
+    public Optional<SolutionCache> getCache() {
+        return Optional.ofNullable(cache);
     }
 
     /**
@@ -30,8 +86,53 @@ public class SolveConnector {
      * @param initialState the initial state of the puzzle
      * @return an {@code Optional} containing the solution node if a solution is found, or an empty {@code Optional} if no solution is found
      */
-    public Optional<Node<String>> solvePuzzle(PuzzleState initialState) {
-        return solver.solve(initialState);
+    public Optional<Node<TwoPhaseMove<Position>>> solvePuzzle(PuzzleState initialState) {
+        return solvePuzzle(initialState, SolveRequest.unlimited()).solution();
+    }
+
+    /**
+     * Solves the puzzle given an initial state, and stops the search as soon as one of the budgets
+     * of the request is exhausted. The solutions read from the distance database or from the
+     * solution cache are returned without a search, whatever the budgets.
+     *
+     * @param initialState the initial state of the puzzle
+     * @param request the budgets of the search
+     * @return the result of the solve, which tells whether a solution was found, the puzzle was
+     *         proved to have no solution, or the search was stopped by a budget
+     */
+    public SolveResult<TwoPhaseMove<Position>> solvePuzzle(PuzzleState initialState, SolveRequest request) {
+        if (database != null && database.covers(initialState)) {
+            return SolveResult.of(database.solve(initialState));
+        }
+        if (cache == null || !cache.covers(initialState)) {
+            return search(initialState, request);
+        }
+        var cached = cache.get(initialState);
+        if (cached.isPresent()) {
+            return SolveResult.of(Optional.of(new Solution(initialState.snapshot(), cached.get()).replay()));
+        }
+        var result = search(initialState, request);
+        result.solution().ifPresent(node -> cache.put(initialState, node.getMoves()));
+        return result;
+    }
+
+    /**
+     * Searches for the solution. The goal states are produced lazily, so that they are counted
+     * against the budgets of the request as they are added to the search, and only the first two
+     * are created to find out if the mirrored search applies.
+     */
+    private SolveResult<TwoPhaseMove<Position>> search(PuzzleState initialState, SolveRequest request) {
+        var mirror = initialState.spec().startToGoalSymmetry();
+        if (mirror.isPresent()) {
+            var goals = initialState.goalStateIterator();
+            var goal = goals.hasNext() ? goals.next() : null;
+            if (goal != null && !goals.hasNext() && initialState.transform(mirror.get()).equals(goal)) {
+                return solver.solveMirrored(initialState, state -> ((PuzzleState) state).transform(mirror.get()),
+                        request);
+            }
+        }
+        Iterable<PuzzleState> goals = initialState::goalStateIterator;
+        return solver.solve(initialState, goals, request);
     }
 
     /**
@@ -39,34 +140,28 @@ public class SolveConnector {
      *
      * @param solution an {@code Optional} containing the solution node
      */
-    public void printSolution(Optional<Node<String>> solution) {
+    public void printSolution(Optional<Node<TwoPhaseMove<Position>>> solution) {
         solution.ifPresentOrElse(
                 node -> {
                     System.out.println("Solution:");
-                    node.getParent().ifPresent(this::printPathTo);
+                    var path = node.getPath();
+                    for (var step : path.subList(0, path.size() - 1)) {
+                        System.out.println(step.getMove().map(Object::toString).orElse("") + " -> "
+                                + step.getState());
+                    }
                     System.out.println(node.getState());
                 },
                 () -> System.out.println("No solution found")
         );
     }
 
-    /**
-     * Recursively prints the path to the solution node.
-     *
-     * @param node the current node in the path
-     */
-    private void printPathTo(Node<String> node) {
-        node.getParent().ifPresent(this::printPathTo);
-        System.out.println(node.getMove().orElse("") + " -> " + node.getState());
-    }
-
     public static void main(String[] args) {
         System.out.println("Start!!!");
         PuzzleState initialState = new PuzzleState();
 
         SolveConnector solveConnector = new SolveConnector();
 
-        Optional<Node<String>> solution = solveConnector.solvePuzzle(initialState);
+        Optional<Node<TwoPhaseMove<Position>>> solution = solveConnector.solvePuzzle(initialState);
 
         solveConnector.printSolution(solution);
     }
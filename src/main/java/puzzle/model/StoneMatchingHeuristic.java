@@ -0,0 +1,172 @@
+package puzzle.model;
+
+import puzzle.State;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.solver.Heuristic;
+
+import java.util.Arrays;
+
+/**
+ * The {@code StoneMatchingHeuristic} class is an admissible and consistent heuristic for
+ * {@link PuzzleState}. For each color, it matches the stones to the goal cells of that color
+ * such that the sum of the distances between the stones and their cells is minimal, and
+ * estimates the number of moves as the sum of the two minimal costs.
+ *
+ * <p>The distance of two cells is the length of the shortest path between them that goes
+ * around the blocks, which is never less than their Manhattan distance. Other stones are
+ * ignored. Since a move advances a single stone by one cell, no solution can be shorter than
+ * the estimate.</p>
+ *
+ * @see puzzle.solver.BestFirstSearch
+ */
+public class StoneMatchingHeuristic implements Heuristic<State<TwoPhaseMove<Position>>> {
+
+    private static final int UNREACHABLE = Integer.MAX_VALUE / 4;
+
+    private final int[][] distances;
+
+    /**
+     * Constructs a new {@code StoneMatchingHeuristic} for the board of the state specified.
+     *
+     * @param board a state whose blocks determine the distances of the cells
+     */
+    public StoneMatchingHeuristic(PuzzleState board) {
+        this.distances = computeDistances(board.spec());
+    }
+
+    /**
+     * Computes the lengths of the shortest paths between the cells by a breadth-first search
+     * from each free cell.
+     *
+     * @param spec the board
+     * @return the matrix of the distances
+     */
+    private static int[][] computeDistances(BoardSpec spec) {
+        int cells = spec.cellCount();
+        long blocks = spec.blockMask();
+        int[][] distances = new int[cells][cells];
+        int[] queue = new int[cells];
+        for (int source = 0; source < cells; source++) {
+            Arrays.fill(distances[source], UNREACHABLE);
+            if ((blocks & (1L << source)) != 0) {
+                continue;
+            }
+            distances[source][source] = 0;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = source;
+            long visited = blocks | (1L << source);
+            while (head < tail) {
+                int cell = queue[head++];
+                for (long next = spec.neighborMask(cell) & ~visited; next != 0; next &= next - 1) {
+                    int neighbor = Long.numberOfTrailingZeros(next);
+                    visited |= 1L << neighbor;
+                    distances[source][neighbor] = distances[source][cell] + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param state the state to be evaluated, which must be a {@link PuzzleState}
+     */
+    @Override
+    public int estimate(State<TwoPhaseMove<Position>> state) {
+        var puzzleState = (PuzzleState) state;
+        int red = matchingCost(puzzleState.redMask(), puzzleState.redGoalMask());
+        int blue = matchingCost(puzzleState.blueMask(), puzzleState.blueGoalMask());
+        if (red >= UNREACHABLE || blue >= UNREACHABLE) {
+            return UNSOLVABLE;
+        }
+        return red + blue;
+    }
+
+    /**
+     * Computes the minimal cost of matching the stones to distinct goal cells with the Hungarian
+     * algorithm.
+     *
+     * @param stones the mask of the stones
+     * @param goals the mask of the goal cells
+     * @return the minimal sum of the distances, or at least {@code UNREACHABLE} if the stones
+     *         cannot be matched to reachable goal cells
+     */
+    private int matchingCost(long stones, long goals) {
+        int n = Long.bitCount(stones);
+        int m = Long.bitCount(goals);
+        if (n == 0) {
+            return 0;
+        }
+        if (n > m) {
+            return UNREACHABLE;
+        }
+        int[] rows = cellsOf(stones, n);
+        int[] cols = cellsOf(goals, m);
+        // Potentials and matching are 1-based, column 0 is a sentinel.
+        long[] u = new long[n + 1];
+        long[] v = new long[m + 1];
+        int[] match = new int[m + 1];
+        int[] way = new int[m + 1];
+        long[] minv = new long[m + 1];
+        boolean[] used = new boolean[m + 1];
+        for (int i = 1; i <= n; i++) {
+            match[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Long.MAX_VALUE);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = match[j0];
+                long delta = Long.MAX_VALUE;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (!used[j]) {
+                        long cost = distances[rows[i0 - 1]][cols[j - 1]] - u[i0] - v[j];
+                        if (cost < minv[j]) {
+                            minv[j] = cost;
+                            way[j] = j0;
+                        }
+                        if (minv[j] < delta) {
+                            delta = minv[j];
+                            j1 = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[match[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (match[j0] != 0);
+            do {
+                int j1 = way[j0];
+                match[j0] = match[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+        long total = 0;
+        for (int j = 1; j <= m; j++) {
+            if (match[j] != 0) {
+                total += distances[rows[match[j] - 1]][cols[j - 1]];
+            }
+        }
+        return (int) Math.min(total, UNREACHABLE);
+    }
+
+    private static int[] cellsOf(long mask, int count) {
+        int[] cells = new int[count];
+        int k = 0;
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            cells[k++] = Long.numberOfTrailingZeros(rest);
+        }
+        return cells;
+    }
+
+}
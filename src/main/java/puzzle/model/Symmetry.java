@@ -0,0 +1,119 @@
+package puzzle.model;
+
+import java.util.Arrays;
+
+/**
+ * The {@code Symmetry} class represents a symmetry of a board: a rotation or a reflection of
+ * the grid, optionally combined with swapping the colors of the stones. Symmetries preserve the
+ * adjacency of the cells, thus they map the moves of a state to the moves of its image.
+ *
+ * @see BoardSpec#symmetries()
+ * @see BoardSpec#startToGoalSymmetry()
+ */
+public final class Symmetry {
+
+    private final String name;
+    private final int[] images;
+    private final boolean swapsColors;
+
+    /**
+     * Creates a {@code Symmetry} object.
+     *
+     * @param name the description of the transformation of the grid
+     * @param images the image of each cell
+     * @param swapsColors whether the colors of the stones are swapped
+     */
+    Symmetry(String name, int[] images, boolean swapsColors) {
+        this.name = name;
+        this.images = images;
+        this.swapsColors = swapsColors;
+    }
+
+    /**
+     * {@return whether the symmetry swaps the colors of the stones}
+     */
+    public boolean swapsColors() {
+        return swapsColors;
+    }
+
+    /**
+     * {@return the image of the position specified}
+     *
+     * @param spec the board of the position
+     * @param position the position, which must be within the board
+     */
+    public Position apply(BoardSpec spec, Position position) {
+        return spec.positionOf(images[spec.cellOf(position)]);
+    }
+
+    /**
+     * {@return whether the symmetry maps the cells to themselves}
+     */
+    boolean isGeometricIdentity() {
+        for (int cell = 0; cell < images.length; cell++) {
+            if (images[cell] != cell) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@return whether applying the symmetry twice maps every cell to itself}
+     */
+    boolean isInvolution() {
+        for (int cell = 0; cell < images.length; cell++) {
+            if (images[images[cell]] != cell) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@return the mask of the images of the cells of the mask specified}
+     *
+     * @param mask the mask of the cells
+     */
+    long apply(long mask) {
+        long result = 0L;
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            result |= 1L << images[Long.numberOfTrailingZeros(rest)];
+        }
+        return result;
+    }
+
+    /**
+     * {@return the red mask of the image of the stones specified}
+     */
+    long red(long red, long blue) {
+        return apply(swapsColors ? blue : red);
+    }
+
+    /**
+     * {@return the blue mask of the image of the stones specified}
+     */
+    long blue(long red, long blue) {
+        return apply(swapsColors ? red : blue);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        return (o instanceof Symmetry other) && swapsColors == other.swapsColors
+                && Arrays.equals(images, other.images);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(images) + Boolean.hashCode(swapsColors);
+    }
+
+    @Override
+    public String toString() {
+        return swapsColors ? name + " with swapped colors" : name;
+    }
+
+}
@@ -1,11 +1,14 @@
 package puzzle.model;
 
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
 import java.util.Scanner;
 import java.util.Set;
 
 /**
  * The {@code TerminalRun} class provides a terminal-based interface to play the puzzle game.
  * It allows users to interact with the game through the command line.
+ * The board is the one returned by {@link BoardSpec#defaultSpec()}.
  */
 public class TerminalRun {
     public static void main(String[] args) {
@@ -15,16 +18,16 @@ public class TerminalRun {
         while (!puzzleState.isSolved()) {
             printBoard(puzzleState);
 
-            Set<String> legalMoves = puzzleState.getLegalMoves();
+            Set<TwoPhaseMove<Position>> legalMoves = puzzleState.getLegalMoves();
             System.out.println("Legal Moves:");
-            for (String move : legalMoves) {
-                System.out.println(move);
+            for (TwoPhaseMove<Position> move : legalMoves) {
+                System.out.println(move.from() + "-" + move.to());
             }
 
             System.out.print("Enter your move (format: srcRow,srcCol-destRow,destCol): ");
-            String move = scanner.nextLine();
+            TwoPhaseMove<Position> move = parseMove(scanner.nextLine());
 
-            if (legalMoves.contains(move)) {
+            if (move != null && legalMoves.contains(move)) {
                 puzzleState.makeMove(move);
             } else {
                 System.out.println("Illegal move. Please try again.");
@@ -34,6 +37,33 @@ public class TerminalRun {
         System.out.println("Congratulations! The puzzle is solved.");
     }
 
+    /**
+     * Parses a move of the form {@code srcRow,srcCol-destRow,destCol}.
+     *
+     * @param text the text entered by the user
+     * @return the move, or {@code null} if the text is not of the required form
+     */
+    private static TwoPhaseMove<Position> parseMove(String text) {
+        String[] coordinates = text.trim().split("-");
+        if (coordinates.length != 2) {
+            return null;
+        }
+        Position from = parsePosition(coordinates[0]);
+        Position to = parsePosition(coordinates[1]);
+        return from != null && to != null ? new TwoPhaseMove<>(from, to) : null;
+    }
+
+    private static Position parsePosition(String text) {
+        String[] indices = text.split(",");
+        try {
+            return indices.length == 2
+                    ? new Position(Integer.parseInt(indices[0].trim()), Integer.parseInt(indices[1].trim()))
+                    : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     /**
      * Prints the current state of the game board to the terminal.
      * It uses different characters to represent the various types of squares.
@@ -41,8 +71,8 @@ public class TerminalRun {
      * @param puzzleState the current state of the puzzle
      */
     private static void printBoard(PuzzleState puzzleState) {
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 5; j++) {
+        for (int i = 0; i < puzzleState.spec().rows(); i++) {
+            for (int j = 0; j < puzzleState.spec().cols(); j++) {
                 Square square = puzzleState.getSquare(new Position(i, j));
                 switch (square) {
                     case NONE:
@@ -0,0 +1,213 @@
+package puzzle.solver;
+
+import puzzle.EncodableState;
+import puzzle.State;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Implements best-first search guided by a {@link Heuristic} to solve puzzles.
+ * Nodes are expanded in the order of their priority {@code g + w * h}, where
+ * {@code g} is the depth of the node, {@code h} is the estimate of the
+ * heuristic and {@code w} is the weight of the search. The open list is a
+ * bucket queue indexed by the integer priority.
+ *
+ * <ul>
+ * <li>With weight 1 the search is A*, which returns a shortest solution if the
+ * heuristic is admissible.</li>
+ * <li>With a weight greater than 1 the search is weighted A*, which usually
+ * expands far fewer nodes, and returns a solution that is at most {@code w}
+ * times longer than a shortest one.</li>
+ * <li>{@link #solveAnytime(State, Instant, Consumer)} keeps searching after
+ * the first solution, and reports shorter and shorter solutions until the
+ * deadline, or until the last solution is proved to be the shortest one.</li>
+ * </ul>
+ *
+ * @param <T> represents the moves that can be applied to the states
+ */
+public class BestFirstSearch<T> {
+
+    /**
+     * The number of expansions between two checks of the deadline.
+     */
+    private static final int DEADLINE_CHECK_INTERVAL = 1 << 10;
+
+    private final Heuristic<? super State<T>> heuristic;
+    private final double weight;
+
+    /**
+     * Creates a {@code BestFirstSearch} object that performs A* search.
+     *
+     * @param heuristic the heuristic guiding the search
+     */
+    public BestFirstSearch(Heuristic<? super State<T>> heuristic) {
+        this(heuristic, 1.0);
+    }
+
+    /**
+     * Creates a {@code BestFirstSearch} object that performs weighted A*
+     * search.
+     *
+     * @param heuristic the heuristic guiding the search
+     * @param weight the weight of the heuristic, which must be at least 1
+     */
+    public BestFirstSearch(Heuristic<? super State<T>> heuristic, double weight) {
+        if (!(weight >= 1.0)) {
+            throw new IllegalArgumentException("The weight must be at least 1: " + weight);
+        }
+        this.heuristic = heuristic;
+        this.weight = weight;
+    }
+
+    /**
+     * Searches for a solution for the puzzle starting from the state provided.
+     * The solution is a shortest one if the weight is 1 and the heuristic is
+     * admissible.
+     *
+     * @param state the initial state
+     * @return an {@code Optional} describing the solution for the puzzle, or an
+     * empty {@code Optional} if no solution is found
+     */
+    public Optional<Node<T>> solve(State<T> state) {
+        return search(state, Instant.MAX, null, true);
+    }
+
+    /**
+     * Searches for shorter and shorter solutions for the puzzle starting from
+     * the state provided, until the deadline is reached or the search space is
+     * exhausted. In the latter case, the solution returned is a shortest one
+     * if the heuristic is admissible.
+     *
+     * @param state the initial state
+     * @param deadline the time after which the search is stopped
+     * @param onImprovement the consumer to which every solution found is
+     *                      passed, each one shorter than the previous one
+     * @return an {@code Optional} describing the shortest solution found, or an
+     * empty {@code Optional} if no solution is found
+     */
+    public Optional<Node<T>> solveAnytime(State<T> state, Instant deadline, Consumer<Node<T>> onImprovement) {
+        return search(state, deadline, onImprovement, false);
+    }
+
+    private Optional<Node<T>> search(State<T> state, Instant deadline, Consumer<Node<T>> onImprovement,
+                                     boolean stopAtFirst) {
+        var open = new BucketQueue<Entry<T>>();
+        var costs = createCostTable(state);
+        int startH = heuristic.estimate(state);
+        if (startH == Heuristic.UNSOLVABLE) {
+            return Optional.empty();
+        }
+        costs.improve(state, 0);
+        open.add((int) (weight * startH), new Entry<>(new Node<>(state), startH));
+        Node<T> incumbent = null;
+        int bound = Integer.MAX_VALUE;
+        int expansions = 0;
+        while (!open.isEmpty()) {
+            if (++expansions % DEADLINE_CHECK_INTERVAL == 0 && Instant.now().isAfter(deadline)) {
+                break;
+            }
+            var entry = open.poll();
+            var node = entry.node();
+            int g = node.getDepth();
+            if (g + entry.h() >= bound || costs.get(node.getState()) < g) {
+                continue;
+            }
+            if (node.getState().isSolved()) {
+                incumbent = node;
+                bound = g;
+                if (onImprovement != null) {
+                    onImprovement.accept(node);
+                }
+                if (stopAtFirst) {
+                    break;
+                }
+                continue;
+            }
+            while (node.hasNextChild()) {
+                var child = node.nextChild().orElseThrow();
+                var childState = child.getState();
+                if (costs.improve(childState, g + 1)) {
+                    int h = heuristic.estimate(childState);
+                    if (h != Heuristic.UNSOLVABLE && g + 1 + h < bound) {
+                        open.add(g + 1 + (int) (weight * h), new Entry<>(child, h));
+                    }
+                }
+            }
+        }
+        return Optional.ofNullable(incumbent);
+    }
+
+    /**
+     * An element of the open list.
+     *
+     * @param node the node to be expanded
+     * @param h the estimate of the heuristic for the state of the node
+     * @param <T> represents the moves that can be applied to the states
+     */
+    private record Entry<T>(Node<T> node, int h) {}
+
+    /**
+     * Keeps track of the least depth at which each state has been reached.
+     * Encodable states are keyed on their canonical codes, thus equivalent
+     * states share their entry.
+     *
+     * @param <T> represents the moves that can be applied to the states
+     */
+    private interface CostTable<T> {
+
+        /**
+         * {@return the least depth at which the state was reached}
+         */
+        int get(State<T> state);
+
+        /**
+         * Records the depth at which the state was reached.
+         *
+         * @return {@code true} if the state was not reached before at the same
+         * or at a lower depth
+         */
+        boolean improve(State<T> state, int depth);
+    }
+
+    private CostTable<T> createCostTable(State<T> state) {
+        if (state instanceof EncodableState<T>) {
+            var depths = new LongIntHashMap();
+            return new CostTable<>() {
+                @Override
+                public int get(State<T> state) {
+                    return depths.getOrDefault(((EncodableState<T>) state).canonicalCode(), Integer.MAX_VALUE);
+                }
+
+                @Override
+                public boolean improve(State<T> state, int depth) {
+                    long code = ((EncodableState<T>) state).canonicalCode();
+                    if (depths.getOrDefault(code, Integer.MAX_VALUE) <= depth) {
+                        return false;
+                    }
+                    depths.put(code, depth);
+                    return true;
+                }
+            };
+        }
+        var depths = new HashMap<State<T>, Integer>();
+        return new CostTable<>() {
+            @Override
+            public int get(State<T> state) {
+                return depths.getOrDefault(state, Integer.MAX_VALUE);
+            }
+
+            @Override
+            public boolean improve(State<T> state, int depth) {
+                if (depths.getOrDefault(state, Integer.MAX_VALUE) <= depth) {
+                    return false;
+                }
+                depths.put(state, depth);
+                return true;
+            }
+        };
+    }
+
+}
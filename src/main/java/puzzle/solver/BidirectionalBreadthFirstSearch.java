@@ -0,0 +1,334 @@
+package puzzle.solver;
+
+import puzzle.EncodableState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Implements bidirectional breadth-first search to solve puzzles. One frontier
+ * is grown from the initial state and another one from the goal states, and
+ * the smaller frontier is always expanded by a whole layer. Each direction
+ * keeps only the depths of the states visited, keyed by their codes, and the
+ * solution is recovered from these depths once the frontiers meet.
+ *
+ * <p>The backward search applies the moves of the puzzle to the goal states,
+ * thus it requires every move to be reversible, i.e., if a move leads from
+ * state {@code a} to state {@code b}, then there must be a move leading from
+ * {@code b} to {@code a}.
+ *
+ * <p>Since equivalent states are at the same distance from the goal, the
+ * backward search keys its depths on the
+ * {@linkplain EncodableState#canonicalCode() canonical codes}, and the
+ * forward search looks up each of the {@linkplain
+ * EncodableState#equivalentStates() equivalent states} of a new backward
+ * state. The forward search keys its depths on the codes, because the
+ * distances from the initial state are not preserved by the symmetries, thus
+ * the solution is found in the original orientation.
+ *
+ * <p>If a symmetry maps the initial state to the goal and back, then
+ * {@link #solveMirrored(EncodableState, UnaryOperator)} performs the backward
+ * search by mirroring the forward one, thus the two directions share a single
+ * table.
+ *
+ * <p>Both searches can be bounded by the budgets of a {@link SolveRequest}.
+ * The budgets are checked before each state is expanded, and each state
+ * visited is counted as stored.
+ *
+ * @param <T> represents the moves that can be applied to the states
+ */
+public class BidirectionalBreadthFirstSearch<T> {
+
+    /**
+     * The estimated memory in bytes used by a state visited by the search:
+     * its entry in the table of depths, and its share of the frontiers.
+     */
+    private static final long BYTES_PER_STATE = 64;
+
+    /**
+     * Searches for the shortest solution for the puzzle starting from the state
+     * provided.
+     *
+     * @param state the initial state
+     * @param goals all of the states in which the puzzle is solved
+     * @return an {@code Optional} describing the shortest solution for the puzzle,
+     * or an empty {@code Optional} if no solution is found
+     */
+    public Optional<Node<T>> solve(EncodableState<T> state, Iterable<? extends EncodableState<T>> goals) {
+        return search(state, goals, null);
+    }
+
+    /**
+     * Searches for the shortest solution for the puzzle starting from the state
+     * provided, like {@link #solve(EncodableState, Iterable)}, but stops as
+     * soon as one of the budgets of the request is exhausted.
+     *
+     * @param state the initial state
+     * @param goals all of the states in which the puzzle is solved, which are
+     *              counted against the budgets as they are added to the
+     *              backward frontier, thus they may be produced lazily
+     * @param request the budgets of the search
+     * @return the result of the search
+     */
+    public SolveResult<T> solve(EncodableState<T> state, Iterable<? extends EncodableState<T>> goals,
+                                SolveRequest request) {
+        var budget = new Budget(request, BYTES_PER_STATE);
+        try {
+            return budget.finished(search(state, goals, budget));
+        } catch (Budget.Exhausted e) {
+            return budget.stopped(e);
+        }
+    }
+
+    private Optional<Node<T>> search(EncodableState<T> state, Iterable<? extends EncodableState<T>> goals,
+                                     Budget budget) {
+        if (state.isSolved()) {
+            return Optional.of(new Node<>(state));
+        }
+        var forward = new Direction<T>(false, budget);
+        forward.add(state);
+        var backward = new Direction<T>(true, budget);
+        for (var goal : goals) {
+            backward.add(goal);
+        }
+        while (!forward.frontier.isEmpty() && !backward.frontier.isEmpty()) {
+            boolean expandForward = forward.frontier.size() <= backward.frontier.size();
+            var meeting = expandForward
+                    ? forward.expand(child -> backward.depthOf(child), null)
+                    : backward.expand(forward::depthOf, EncodableState::equivalentStates);
+            if (meeting != null) {
+                var node = forward.pathTo(state, meeting, this::step);
+                for (var next : backward.descend(meeting)) {
+                    node = step(node, next.encode());
+                }
+                return Optional.of(node);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Searches for the shortest solution for the puzzle starting from the state
+     * provided, using a mirror that maps the initial state to the only goal
+     * state and the goal state back to the initial state, and that maps
+     * adjacent states to adjacent states. The distance of any state from the
+     * goal then equals the distance of its mirror image from the initial
+     * state, thus a single breadth-first search from the initial state serves
+     * both directions: the search meets itself at a state whose mirror image
+     * has already been visited.
+     *
+     * @param state the initial state
+     * @param mirror the mirror, which must be its own inverse
+     * @return an {@code Optional} describing the shortest solution for the puzzle,
+     * or an empty {@code Optional} if no solution is found
+     */
+    public Optional<Node<T>> solveMirrored(EncodableState<T> state, UnaryOperator<EncodableState<T>> mirror) {
+        return searchMirrored(state, mirror, null);
+    }
+
+    /**
+     * Searches for the shortest solution for the puzzle starting from the state
+     * provided, like {@link #solveMirrored(EncodableState, UnaryOperator)},
+     * but stops as soon as one of the budgets of the request is exhausted.
+     *
+     * @param state the initial state
+     * @param mirror the mirror, which must be its own inverse
+     * @param request the budgets of the search
+     * @return the result of the search
+     */
+    public SolveResult<T> solveMirrored(EncodableState<T> state, UnaryOperator<EncodableState<T>> mirror,
+                                        SolveRequest request) {
+        var budget = new Budget(request, BYTES_PER_STATE);
+        try {
+            return budget.finished(searchMirrored(state, mirror, budget));
+        } catch (Budget.Exhausted e) {
+            return budget.stopped(e);
+        }
+    }
+
+    private Optional<Node<T>> searchMirrored(EncodableState<T> state, UnaryOperator<EncodableState<T>> mirror,
+                                             Budget budget) {
+        if (state.isSolved()) {
+            return Optional.of(new Node<>(state));
+        }
+        var search = new Direction<T>(false, budget);
+        search.add(state);
+        while (!search.frontier.isEmpty()) {
+            var meeting = search.expand(child -> search.depthOf(mirror.apply(child)), null);
+            if (meeting != null) {
+                var node = search.pathTo(state, meeting, this::step);
+                for (var next : search.descend(mirror.apply(meeting))) {
+                    node = step(node, mirror.apply(next).encode());
+                }
+                return Optional.of(node);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * {@return the child of the node whose state has the code specified}
+     */
+    @SuppressWarnings("unchecked")
+    private Node<T> step(Node<T> node, long code) {
+        var state = node.getState();
+        for (var move : state.getLegalMoves()) {
+            var child = (EncodableState<T>) state.clone();
+            child.makeMove(move);
+            if (child.encode() == code) {
+                return new Node<>(child, node, move);
+            }
+        }
+        throw new IllegalStateException("No move leads to the state " + code);
+    }
+
+    /**
+     * Represents one direction of the search.
+     */
+    private static class Direction<T> {
+
+        private final LongIntHashMap depths = new LongIntHashMap();
+        private final boolean canonical;
+        private final Budget budget;
+        private List<EncodableState<T>> frontier = new ArrayList<>();
+        private int depth;
+
+        /**
+         * Creates a direction.
+         *
+         * @param canonical whether the depths are keyed on the canonical codes
+         *                  instead of the codes
+         * @param budget the budget of the search, or {@code null} if the
+         *               search is not bounded
+         */
+        Direction(boolean canonical, Budget budget) {
+            this.canonical = canonical;
+            this.budget = budget;
+        }
+
+        private long key(EncodableState<T> state) {
+            return canonical ? state.canonicalCode() : state.encode();
+        }
+
+        private long keyAfter(EncodableState<T> state, T move) {
+            return canonical ? state.canonicalCodeAfter(move) : state.encodeAfter(move);
+        }
+
+        void add(EncodableState<T> state) {
+            if (depths.putIfAbsent(key(state), 0)) {
+                frontier.add(state);
+                if (budget != null) {
+                    budget.stored();
+                }
+            }
+        }
+
+        /**
+         * {@return the depth at which the state was visited, or
+         * {@code Integer.MAX_VALUE} if it was not visited}
+         */
+        int depthOf(EncodableState<T> state) {
+            return depths.getOrDefault(key(state), Integer.MAX_VALUE);
+        }
+
+        /**
+         * Expands the frontier by one layer. The key of each child is
+         * computed from its parent and the move, so only the new children
+         * are created.
+         *
+         * @param otherDepth the depth of a state in the opposite direction
+         * @param candidates the states to be looked up in the opposite
+         *                   direction for a new state, or {@code null} to look
+         *                   up only the new state itself
+         * @return the state of the opposite direction that is reached by the
+         * new layer with the least depth in the opposite direction, or
+         * {@code null} if there is no such state
+         * @throws Budget.Exhausted if a budget of the search is exhausted
+         */
+        @SuppressWarnings("unchecked")
+        EncodableState<T> expand(ToIntFunction<EncodableState<T>> otherDepth,
+                                 Function<EncodableState<T>, List<? extends EncodableState<T>>> candidates) {
+            List<EncodableState<T>> next = new ArrayList<>();
+            EncodableState<T> meeting = null;
+            int meetingDepth = Integer.MAX_VALUE;
+            depth++;
+            for (var state : frontier) {
+                if (budget != null) {
+                    budget.expanded();
+                }
+                for (var move : state.getLegalMoves()) {
+                    if (!depths.putIfAbsent(keyAfter(state, move), depth)) {
+                        continue;
+                    }
+                    var child = (EncodableState<T>) state.clone();
+                    child.makeMove(move);
+                    if (budget != null) {
+                        budget.stored();
+                    }
+                    next.add(child);
+                    for (var candidate : candidates == null ? List.of(child) : candidates.apply(child)) {
+                        int candidateDepth = otherDepth.applyAsInt(candidate);
+                        if (candidateDepth < meetingDepth) {
+                            meeting = candidate;
+                            meetingDepth = candidateDepth;
+                        }
+                    }
+                }
+            }
+            frontier = next;
+            return meeting;
+        }
+
+        /**
+         * {@return the states visited by descending from the state specified
+         * to depth 0, each one adjacent to the previous one and visited one
+         * layer earlier, excluding the state specified}
+         */
+        @SuppressWarnings("unchecked")
+        List<EncodableState<T>> descend(EncodableState<T> state) {
+            var states = new ArrayList<EncodableState<T>>();
+            var current = state;
+            for (int level = depthOf(state) - 1; level >= 0; level--) {
+                EncodableState<T> predecessor = null;
+                for (var move : current.getLegalMoves()) {
+                    var child = (EncodableState<T>) current.clone();
+                    child.makeMove(move);
+                    if (depths.getOrDefault(key(child), -1) == level) {
+                        predecessor = child;
+                        break;
+                    }
+                }
+                if (predecessor == null) {
+                    throw new IllegalStateException("No predecessor at depth " + level);
+                }
+                states.add(predecessor);
+                current = predecessor;
+            }
+            return states;
+        }
+
+        /**
+         * {@return the chain of nodes that leads from the initial state to the
+         * state specified}
+         *
+         * @param initial the initial state
+         * @param state a state visited by the search
+         * @param step the function that creates the child of a node whose
+         *             state has the code specified
+         */
+        Node<T> pathTo(EncodableState<T> initial, EncodableState<T> state, BiFunction<Node<T>, Long, Node<T>> step) {
+            var path = descend(state);
+            var node = new Node<T>(initial.clone());
+            for (int i = path.size() - 2; i >= 0; i--) {
+                node = step.apply(node, path.get(i).encode());
+            }
+            return path.isEmpty() ? node : step.apply(node, state.encode());
+        }
+    }
+
+}
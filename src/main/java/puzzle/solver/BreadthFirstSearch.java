@@ -1,43 +1,164 @@
 package puzzle.solver;
 
+import puzzle.EncodableState;
 import puzzle.State;
 
 import java.util.Deque;
-import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
  * Implements the breadth-first search (BFS) algorithm to solve puzzles.
  *
+ * <p>The events of the search can be observed by a {@link SearchListener}.
+ * If no listener is given, then a {@link FlightRecorderListener} is attached
+ * only while its events are enabled in a running recording, otherwise the
+ * search is not instrumented at all.
+ *
+ * <p>A search can be bounded by the budgets of a {@link SolveRequest}, see
+ * {@link #solve(State, SolveRequest)}.
+ *
  * @param <T> represents the moves that can be applied to the states
  */
 public class BreadthFirstSearch<T> {
 
+    /**
+     * The estimated memory in bytes used by a node stored by the search: the
+     * node, its state, its entry in the visited set and its link in the
+     * queue.
+     */
+    private static final long BYTES_PER_NODE = 128;
+
+    private final SearchListener<? super T> listener;
+
+    /**
+     * Creates a {@code BreadthFirstSearch} object without a listener.
+     */
+    public BreadthFirstSearch() {
+        this.listener = null;
+    }
+
+    /**
+     * Creates a {@code BreadthFirstSearch} object that reports the events of
+     * the searches to the listener specified.
+     *
+     * @param listener the listener of the searches
+     */
+    public BreadthFirstSearch(SearchListener<? super T> listener) {
+        this.listener = Objects.requireNonNull(listener);
+    }
+
     /**
      * Searches for the shortest solution for the puzzle starting from the state
-     * provided.
+     * provided. If the state is an {@link EncodableState}, then the states
+     * visited are kept track of by their canonical codes in a
+     * {@link LongHashSet}, so only one of the equivalent states is expanded,
+     * and the code of a child is computed from its parent and its move, so
+     * no state or node is created for a child already visited. Otherwise the
+     * states themselves are stored in a {@code HashSet}.
      *
      * @param state the initial state
      * @return an {@code Optional} describing the shortest solution for the puzzle,
      * or an empty {@code Optional} if no solution is found
      */
     public Optional<Node<T>> solve(State<T> state) {
+        SearchListener<? super T> listener = this.listener != null
+                ? this.listener
+                : FlightRecorderListener.ifEnabled(getClass().getSimpleName());
+        if (listener == null) {
+            return search(state);
+        }
+        var solution = search(state, listener);
+        listener.searchFinished(solution);
+        return solution;
+    }
+
+    /**
+     * Searches for the shortest solution for the puzzle starting from the state
+     * provided, like {@link #solve(State)}, but stops as soon as one of the
+     * budgets of the request is exhausted. The events of the search are
+     * reported to the listener of the object, if any.
+     *
+     * @param state the initial state
+     * @param request the budgets of the search
+     * @return the result of the search, which tells whether a solution was
+     * found, the puzzle was proved to have no solution, or the search was
+     * stopped by a budget
+     */
+    public SolveResult<T> solve(State<T> state, SolveRequest request) {
+        var budget = new Budget(request, BYTES_PER_NODE);
+        SearchListener<? super T> observer = this.listener != null
+                ? this.listener
+                : FlightRecorderListener.ifEnabled(getClass().getSimpleName());
+        SearchListener<? super T> listener = budget;
+        if (observer != null) {
+            listener = observer.andThen(budget);
+        }
+        Optional<Node<T>> solution = Optional.empty();
+        try {
+            solution = search(state, listener);
+            return budget.finished(solution);
+        } catch (Budget.Exhausted e) {
+            return budget.stopped(e);
+        } finally {
+            listener.searchFinished(solution);
+        }
+    }
+
+    private Optional<Node<T>> search(State<T> state) {
+        Deque<Node<T>> open = new LinkedList<>();
+        var seen = VisitedSet.create(state);
+        var start = new Node<>(state);
+        open.add(start);
+        seen.add(start);
+        while (!open.isEmpty()) {
+            var selected = open.pollFirst();
+            if (selected.getState().isSolved()) {
+                return Optional.of(selected);
+            }
+            while (selected.hasNextChild()) {
+                var child = seen.addChild(selected, selected.nextMove().orElseThrow());
+                if (child != null) {
+                    open.offerLast(child);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Performs the same search as {@link #search(State)}, and reports its
+     * events to the listener. It is kept separate so that the searches
+     * without a listener do not pay for the instrumentation.
+     */
+    private Optional<Node<T>> search(State<T> state, SearchListener<? super T> listener) {
         Deque<Node<T>> open = new LinkedList<>();
-        var seen = new HashSet<Node<T>>();
+        var seen = VisitedSet.create(state);
         var start = new Node<>(state);
         open.add(start);
         seen.add(start);
+        listener.searchStarted(start);
+        listener.layerStarted(0);
+        int depth = 0;
         while (!open.isEmpty()) {
             var selected = open.pollFirst();
+            if (selected.getDepth() > depth) {
+                depth = selected.getDepth();
+                listener.layerStarted(depth);
+            }
             if (selected.getState().isSolved()) {
                 return Optional.of(selected);
             }
+            listener.nodeExpanded(selected, open.size());
             while (selected.hasNextChild()) {
-                var nextChild = selected.nextChild().orElseThrow();
-                if (!seen.contains(nextChild)) {
-                    open.offerLast(nextChild);
-                    seen.add(nextChild);
+                var move = selected.nextMove().orElseThrow();
+                var child = seen.addChild(selected, move);
+                if (child != null) {
+                    open.offerLast(child);
+                    listener.nodeGenerated(child);
+                } else {
+                    listener.duplicateGenerated(selected, move);
                 }
             }
         }
@@ -55,15 +176,10 @@ public class BreadthFirstSearch<T> {
     public Optional<Node<T>> solveAndPrintSolution(State<T> state) {
         var solution = solve(state);
         solution.ifPresentOrElse(
-                this::printPathTo,
+                node -> node.getPath().forEach(System.out::println),
                 () -> System.out.println("No solution found")
         );
         return solution;
     }
 
-    private void printPathTo(Node<T> node) {
-        node.getParent().ifPresent(this::printPathTo);
-        System.out.println(node);
-    }
-
 }
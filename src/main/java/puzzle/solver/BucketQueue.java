@@ -0,0 +1,74 @@
+package puzzle.solver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A priority queue of elements with small non-negative integer priorities. It
+ * keeps one bucket per priority, thus insertion takes constant time and
+ * removal takes time proportional to the gap between consecutive minimal
+ * priorities. The elements of the same priority are removed in last-in,
+ * first-out order.
+ *
+ * @param <E> the type of the elements
+ */
+class BucketQueue<E> {
+
+    private final List<ArrayDeque<E>> buckets = new ArrayList<>();
+    private int min;
+    private int size;
+
+    /**
+     * Adds an element with the priority specified.
+     *
+     * @param priority the priority of the element
+     * @param element the element to be added
+     */
+    void add(int priority, E element) {
+        while (buckets.size() <= priority) {
+            buckets.add(new ArrayDeque<>());
+        }
+        buckets.get(priority).push(element);
+        if (size == 0 || priority < min) {
+            min = priority;
+        }
+        size++;
+    }
+
+    /**
+     * {@return the least priority of the elements} The queue must not be
+     * empty.
+     */
+    int minPriority() {
+        while (buckets.get(min).isEmpty()) {
+            min++;
+        }
+        return min;
+    }
+
+    /**
+     * {@return an element with the least priority, which is removed from the
+     * queue} The queue must not be empty.
+     */
+    E poll() {
+        var element = buckets.get(minPriority()).pop();
+        size--;
+        return element;
+    }
+
+    /**
+     * {@return whether the queue is empty}
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * {@return the number of elements in the queue}
+     */
+    int size() {
+        return size;
+    }
+
+}
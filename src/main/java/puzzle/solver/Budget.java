@@ -0,0 +1,157 @@
+package puzzle.solver;
+
+import java.io.Serial;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Keeps track of the budgets of a {@link SolveRequest} during a search. The
+ * search reports every expansion and every state it stores, and the budget
+ * throws {@link Exhausted} as soon as one of the budgets is exhausted. It is
+ * also a {@link SearchListener}, so it can be attached to the solvers that
+ * report their events.
+ */
+final class Budget implements SearchListener<Object> {
+
+    /**
+     * The number of expansions, or of states stored, between two checks of
+     * the deadline.
+     */
+    private static final int DEADLINE_CHECK_INTERVAL = 1 << 8;
+
+    /**
+     * Thrown when a budget is exhausted. It has no stack trace, since it is
+     * only used to unwind the search.
+     */
+    static final class Exhausted extends RuntimeException {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final SolveResult.Outcome outcome;
+
+        Exhausted(SolveResult.Outcome outcome) {
+            super(outcome.name(), null, false, false);
+            this.outcome = outcome;
+        }
+    }
+
+    private final SolveRequest request;
+    private final long bytesPerState;
+    private final long start = System.nanoTime();
+    private final long remainingNanos;
+    private long expanded;
+    private long stored;
+
+    /**
+     * Creates a budget.
+     *
+     * @param request the budgets
+     * @param bytesPerState the estimated memory used by a state stored by the
+     *                      search
+     */
+    Budget(SolveRequest request, long bytesPerState) {
+        this.request = request;
+        this.bytesPerState = bytesPerState;
+        long remaining;
+        try {
+            remaining = Math.max(0, Duration.between(Instant.now(), request.deadline()).toNanos());
+        } catch (ArithmeticException e) {
+            remaining = Long.MAX_VALUE;
+        }
+        this.remainingNanos = remaining;
+    }
+
+    /**
+     * Counts a state stored by the search. Since the states are also stored
+     * while the search is seeded, e.g., with the goal states, without being
+     * expanded, the cancellation and the deadline are checked here as well.
+     *
+     * @throws Exhausted if the cap on the memory is exceeded, the solve is
+     * cancelled or the deadline is reached
+     */
+    void stored() {
+        stored++;
+        if (estimatedMemoryBytes() > request.maxMemoryBytes()) {
+            throw new Exhausted(SolveResult.Outcome.MEMORY_LIMIT_REACHED);
+        }
+        if (stored % DEADLINE_CHECK_INTERVAL == 1) {
+            if (request.cancellationToken().isCancelled()) {
+                throw new Exhausted(SolveResult.Outcome.CANCELLED);
+            }
+            checkDeadline();
+        }
+    }
+
+    /**
+     * Counts an expansion.
+     *
+     * @throws Exhausted if the solve is cancelled, the cap on the expansions
+     * is exceeded or the deadline is reached
+     */
+    void expanded() {
+        if (request.cancellationToken().isCancelled()) {
+            throw new Exhausted(SolveResult.Outcome.CANCELLED);
+        }
+        if (++expanded > request.maxExpansions()) {
+            expanded--;
+            throw new Exhausted(SolveResult.Outcome.EXPANSION_LIMIT_REACHED);
+        }
+        if (expanded % DEADLINE_CHECK_INTERVAL == 1) {
+            checkDeadline();
+        }
+    }
+
+    private void checkDeadline() {
+        if (System.nanoTime() - start > remainingNanos) {
+            throw new Exhausted(SolveResult.Outcome.DEADLINE_EXCEEDED);
+        }
+    }
+
+    private long estimatedMemoryBytes() {
+        return stored * bytesPerState;
+    }
+
+    @Override
+    public void searchStarted(Node<?> root) {
+        stored();
+    }
+
+    @Override
+    public void nodeExpanded(Node<?> node, int frontierSize) {
+        expanded();
+    }
+
+    @Override
+    public void nodeGenerated(Node<?> child) {
+        stored();
+    }
+
+    /**
+     * {@return the result of a search that finished}
+     *
+     * @param solution the solution found by the search
+     * @param <T> represents the moves that can be applied to the states
+     */
+    <T> SolveResult<T> finished(Optional<Node<T>> solution) {
+        return result(solution.isPresent() ? SolveResult.Outcome.SOLVED : SolveResult.Outcome.NO_SOLUTION,
+                solution);
+    }
+
+    /**
+     * {@return the result of a search stopped by an exhausted budget}
+     *
+     * @param exhausted the exception thrown by the budget
+     * @param <T> represents the moves that can be applied to the states
+     */
+    <T> SolveResult<T> stopped(Exhausted exhausted) {
+        return result(exhausted.outcome, Optional.empty());
+    }
+
+    private <T> SolveResult<T> result(SolveResult.Outcome outcome, Optional<Node<T>> solution) {
+        return new SolveResult<>(outcome, solution, expanded, stored, estimatedMemoryBytes(),
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+
+}
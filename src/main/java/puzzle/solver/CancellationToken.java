@@ -0,0 +1,28 @@
+package puzzle.solver;
+
+/**
+ * A flag through which a solve can be cancelled from another thread. The
+ * solvers check the flag before each expansion, thus a cancelled solve stops
+ * shortly after {@link #cancel()} is called.
+ *
+ * @see SolveRequest
+ */
+public final class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    /**
+     * Requests the cancellation of the solves that use the token.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * {@return whether the cancellation was requested}
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+}
@@ -0,0 +1,191 @@
+package puzzle.solver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A file of state codes in ascending unsigned order without duplicates. The
+ * codes are compressed: each code is stored as its difference from the
+ * previous code, in the variable-length format of seven bits per byte with
+ * the high bit set on every byte but the last one.
+ *
+ * <p>Runs are written through a buffer with a {@link FileChannel}, and read
+ * through windows of the file mapped into memory.</p>
+ */
+final class CodeRun {
+
+    private CodeRun() {
+    }
+
+    /**
+     * Sorts the codes in the range specified in ascending unsigned order.
+     */
+    static void sortUnsigned(long[] codes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            codes[i] ^= Long.MIN_VALUE;
+        }
+        Arrays.sort(codes, from, to);
+        for (int i = from; i < to; i++) {
+            codes[i] ^= Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Writes a run. The codes must be added in ascending unsigned order;
+     * a code equal to the previous one is skipped.
+     */
+    static final class Writer implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long previous;
+        private long count;
+
+        Writer(Path path, int bufferSize) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, 16));
+        }
+
+        /**
+         * Adds a code to the run.
+         *
+         * @param code the code, which must not be less than the previous one
+         * @return whether the code was added, i.e., it differs from the
+         * previous code
+         * @throws IOException if an I/O error occurs
+         */
+        boolean add(long code) throws IOException {
+            if (count > 0) {
+                int order = Long.compareUnsigned(code, previous);
+                if (order == 0) {
+                    return false;
+                }
+                if (order < 0) {
+                    throw new IllegalArgumentException("The codes must be added in ascending order");
+                }
+            }
+            if (buffer.remaining() < 10) {
+                flush();
+            }
+            long delta = count == 0 ? code : code - previous;
+            while ((delta & ~0x7FL) != 0) {
+                buffer.put((byte) (delta | 0x80));
+                delta >>>= 7;
+            }
+            buffer.put((byte) delta);
+            previous = code;
+            count++;
+            return true;
+        }
+
+        /**
+         * {@return the number of codes added}
+         */
+        long count() {
+            return count;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Reads a run in ascending order.
+     */
+    static final class Reader implements Closeable {
+
+        private final FileChannel channel;
+        private final long size;
+        private final int windowSize;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long previous;
+        private boolean first = true;
+        private long next;
+        private boolean hasNext;
+
+        Reader(Path path, int windowSize) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.size = channel.size();
+            this.windowSize = Math.max(windowSize, 16);
+            advance();
+        }
+
+        /**
+         * {@return whether there are more codes}
+         */
+        boolean hasNext() {
+            return hasNext;
+        }
+
+        /**
+         * {@return the next code without consuming it}
+         */
+        long peek() {
+            return next;
+        }
+
+        /**
+         * {@return the next code}
+         *
+         * @throws IOException if an I/O error occurs
+         */
+        long next() throws IOException {
+            long code = next;
+            advance();
+            return code;
+        }
+
+        private void advance() throws IOException {
+            long position = window == null ? 0 : windowStart + window.position();
+            if (position >= size) {
+                hasNext = false;
+                return;
+            }
+            if (window == null || window.remaining() < 10 && windowStart + window.limit() < size) {
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, size - position));
+            }
+            long delta = 0L;
+            int shift = 0;
+            byte b;
+            do {
+                b = window.get();
+                delta |= (b & 0x7FL) << shift;
+                shift += 7;
+            } while (b < 0);
+            next = first ? delta : previous + delta;
+            first = false;
+            previous = next;
+            hasNext = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null;
+            channel.close();
+        }
+    }
+
+}
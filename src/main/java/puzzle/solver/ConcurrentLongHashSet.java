@@ -0,0 +1,71 @@
+package puzzle.solver;
+
+/**
+ * A thread-safe set of primitive {@code long} values. The values are
+ * distributed by their hash among a fixed number of {@link LongHashSet}
+ * stripes, each of which is guarded by its own lock, thus threads adding
+ * different values rarely contend.
+ */
+public class ConcurrentLongHashSet {
+
+    private final LongHashSet[] stripes;
+    private final int shift;
+
+    /**
+     * Creates an empty set with enough stripes for the number of threads
+     * specified.
+     *
+     * @param concurrency the number of threads expected to access the set
+     */
+    public ConcurrentLongHashSet(int concurrency) {
+        int count = Integer.highestOneBit(Math.max(1, concurrency * 4 - 1)) << 1;
+        stripes = new LongHashSet[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new LongHashSet();
+        }
+        shift = 64 - Integer.numberOfTrailingZeros(count);
+    }
+
+    private LongHashSet stripeOf(long value) {
+        return stripes[(int) ((value * 0xC2B2AE3D27D4EB4FL) >>> shift)];
+    }
+
+    /**
+     * Adds the value specified to the set.
+     *
+     * @param value the value to be added
+     * @return {@code true} if the set did not already contain the value
+     */
+    public boolean add(long value) {
+        var stripe = stripeOf(value);
+        synchronized (stripe) {
+            return stripe.add(value);
+        }
+    }
+
+    /**
+     * {@return whether the set contains the value specified}
+     *
+     * @param value the value to be looked up
+     */
+    public boolean contains(long value) {
+        var stripe = stripeOf(value);
+        synchronized (stripe) {
+            return stripe.contains(value);
+        }
+    }
+
+    /**
+     * {@return the number of elements in the set}
+     */
+    public long size() {
+        long size = 0;
+        for (var stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+}
@@ -0,0 +1,301 @@
+package puzzle.solver;
+
+import puzzle.EncodableState;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Implements an external-memory breadth-first search, which keeps the
+ * layers of the search on disk instead of in the heap, so that it can search
+ * state spaces much larger than the heap.
+ *
+ * <p>Each layer, i.e., the set of the states at the same depth, is stored as
+ * a {@linkplain CodeRun run} of sorted, compressed state codes. A layer is
+ * expanded by reading it sequentially and decoding its states with
+ * {@link EncodableState#decode(long)}. The codes of the successors are
+ * collected in a buffer that is sorted and written as a run whenever it is
+ * full. The runs are then merged into the next layer, and duplicates are
+ * removed during the merge by skipping the codes found in the current and in
+ * the previous layers instead of looking them up in a hash set. This delayed
+ * duplicate detection requires the moves of the puzzle to be reversible,
+ * thus every successor of a state at depth {@code d} is at depth
+ * {@code d - 1}, {@code d} or {@code d + 1}.</p>
+ *
+ * <p>The memory used by the search is bounded by the budget given, half of
+ * which is used for the buffer of successors. The layers are kept until the
+ * search is finished, and the solution is reconstructed by walking the layers
+ * backwards from the goal; the files are deleted at the end of the search.</p>
+ *
+ * @param <T> represents the moves that can be applied to the states
+ */
+public class ExternalBreadthFirstSearch<T> {
+
+    /**
+     * The default memory budget in bytes.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    /**
+     * The largest size in bytes of the buffer of a file.
+     */
+    private static final int MAX_IO_BUFFER_SIZE = 1 << 20;
+
+    private final Path directory;
+    private final int successorBufferLength;
+    private final int ioBufferSize;
+
+    /**
+     * Creates an {@code ExternalBreadthFirstSearch} object with the default
+     * memory budget.
+     *
+     * @param directory the directory where the files of the layers are created
+     */
+    public ExternalBreadthFirstSearch(Path directory) {
+        this(directory, DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Creates an {@code ExternalBreadthFirstSearch} object.
+     *
+     * @param directory the directory where the files of the layers are created
+     * @param memoryBudget the memory in bytes the search may use for its buffers
+     * @throws IllegalArgumentException if the budget is less than 1 KiB
+     */
+    public ExternalBreadthFirstSearch(Path directory, long memoryBudget) {
+        if (memoryBudget < 1024) {
+            throw new IllegalArgumentException("The memory budget must be at least 1 KiB: " + memoryBudget);
+        }
+        this.directory = directory;
+        this.successorBufferLength = (int) Math.min(Integer.MAX_VALUE - 8, memoryBudget / 2 / Long.BYTES);
+        this.ioBufferSize = (int) Math.min(MAX_IO_BUFFER_SIZE, memoryBudget / 64);
+    }
+
+    /**
+     * Searches for the shortest solution for the puzzle starting from the
+     * state provided.
+     *
+     * @param state the initial state
+     * @return an {@code Optional} describing the shortest solution for the
+     * puzzle, or an empty {@code Optional} if no solution is found
+     * @throws UncheckedIOException if an I/O error occurs
+     * @throws UnsupportedOperationException if the states cannot be decoded
+     */
+    public Optional<Node<T>> solve(EncodableState<T> state) {
+        return search(state, true).solution;
+    }
+
+    /**
+     * Searches the whole state space reachable from the state provided, and
+     * returns the number of states at each depth.
+     *
+     * @param state the initial state
+     * @return the number of states at each depth, starting with depth 0
+     * @throws UncheckedIOException if an I/O error occurs
+     * @throws UnsupportedOperationException if the states cannot be decoded
+     */
+    public List<Long> layerSizes(EncodableState<T> state) {
+        return search(state, false).layerSizes;
+    }
+
+    private record Result<T>(Optional<Node<T>> solution, List<Long> layerSizes) {
+    }
+
+    private Result<T> search(EncodableState<T> state, boolean stopAtGoal) {
+        try {
+            var work = Files.createTempDirectory(directory, "bfs-");
+            try {
+                return search(state, stopAtGoal, work);
+            } finally {
+                try (var files = Files.list(work)) {
+                    for (var file : files.toList()) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+                Files.deleteIfExists(work);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Result<T> search(EncodableState<T> state, boolean stopAtGoal, Path work) throws IOException {
+        var layers = new ArrayList<Path>();
+        var sizes = new ArrayList<Long>();
+        var first = work.resolve("layer-0");
+        try (var writer = new CodeRun.Writer(first, ioBufferSize)) {
+            writer.add(state.encode());
+        }
+        layers.add(first);
+        sizes.add(1L);
+        long[] buffer = new long[successorBufferLength];
+        for (int depth = 0; ; depth++) {
+            var runs = new ArrayList<Path>();
+            int count = 0;
+            try (var reader = new CodeRun.Reader(layers.get(depth), ioBufferSize)) {
+                while (reader.hasNext()) {
+                    var current = state.decode(reader.next());
+                    if (stopAtGoal && current.isSolved()) {
+                        return new Result<>(Optional.of(reconstruct(state, current, layers)), sizes);
+                    }
+                    for (var move : current.getLegalMoves()) {
+                        var child = (EncodableState<T>) current.clone();
+                        child.makeMove(move);
+                        if (count == buffer.length) {
+                            runs.add(writeRun(work.resolve("run-" + runs.size()), buffer, count));
+                            count = 0;
+                        }
+                        buffer[count++] = child.encode();
+                    }
+                }
+            }
+            if (count > 0) {
+                runs.add(writeRun(work.resolve("run-" + runs.size()), buffer, count));
+            }
+            var next = work.resolve("layer-" + (depth + 1));
+            long size = merge(runs, depth > 0 ? layers.get(depth - 1) : null, layers.get(depth), next);
+            for (var run : runs) {
+                Files.delete(run);
+            }
+            if (size == 0) {
+                return new Result<>(Optional.empty(), sizes);
+            }
+            layers.add(next);
+            sizes.add(size);
+        }
+    }
+
+    private Path writeRun(Path path, long[] codes, int count) throws IOException {
+        CodeRun.sortUnsigned(codes, 0, count);
+        try (var writer = new CodeRun.Writer(path, ioBufferSize)) {
+            for (int i = 0; i < count; i++) {
+                writer.add(codes[i]);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Merges the runs of successors into the next layer, leaving out the
+     * codes of the previous and of the current layer.
+     *
+     * @return the number of states of the next layer
+     */
+    private long merge(List<Path> runs, Path previous, Path current, Path next) throws IOException {
+        var queue = new PriorityQueue<CodeRun.Reader>(Math.max(1, runs.size()),
+                Comparator.comparing(CodeRun.Reader::peek, Long::compareUnsigned));
+        CodeRun.Reader previousReader = null;
+        CodeRun.Reader currentReader = null;
+        try (var writer = new CodeRun.Writer(next, ioBufferSize)) {
+            for (var run : runs) {
+                var reader = new CodeRun.Reader(run, ioBufferSize);
+                if (reader.hasNext()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+            previousReader = previous == null ? null : new CodeRun.Reader(previous, ioBufferSize);
+            currentReader = new CodeRun.Reader(current, ioBufferSize);
+            while (!queue.isEmpty()) {
+                var reader = queue.poll();
+                long code = reader.next();
+                if (reader.hasNext()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+                if (!contains(previousReader, code) && !contains(currentReader, code)) {
+                    writer.add(code);
+                }
+            }
+            return writer.count();
+        } finally {
+            for (var reader : queue) {
+                reader.close();
+            }
+            if (previousReader != null) {
+                previousReader.close();
+            }
+            if (currentReader != null) {
+                currentReader.close();
+            }
+        }
+    }
+
+    /**
+     * Checks if a run contains a code. The codes must be looked up in
+     * ascending order, since the reader is advanced past the smaller codes.
+     */
+    private static boolean contains(CodeRun.Reader reader, long code) throws IOException {
+        if (reader == null) {
+            return false;
+        }
+        while (reader.hasNext() && Long.compareUnsigned(reader.peek(), code) < 0) {
+            reader.next();
+        }
+        return reader.hasNext() && reader.peek() == code;
+    }
+
+    /**
+     * Reconstructs the path to the goal by finding a predecessor of each
+     * state in the previous layer, which takes one pass over each layer.
+     */
+    private Node<T> reconstruct(EncodableState<T> initial, EncodableState<T> goal, List<Path> layers)
+            throws IOException {
+        var states = new ArrayList<EncodableState<T>>();
+        states.add(goal);
+        var current = goal;
+        for (int depth = layers.size() - 2; depth >= 0; depth--) {
+            var neighbors = new ArrayList<EncodableState<T>>();
+            for (var move : current.getLegalMoves()) {
+                var neighbor = (EncodableState<T>) current.clone();
+                neighbor.makeMove(move);
+                neighbors.add(neighbor);
+            }
+            neighbors.sort(Comparator.comparing(EncodableState::encode, Long::compareUnsigned));
+            EncodableState<T> predecessor = null;
+            try (var reader = new CodeRun.Reader(layers.get(depth), ioBufferSize)) {
+                for (var neighbor : neighbors) {
+                    if (contains(reader, neighbor.encode())) {
+                        predecessor = neighbor;
+                        break;
+                    }
+                }
+            }
+            if (predecessor == null) {
+                throw new IllegalStateException("No predecessor in layer " + depth
+                        + ", are the moves of the puzzle reversible?");
+            }
+            states.add(predecessor);
+            current = predecessor;
+        }
+        Collections.reverse(states);
+        var node = new Node<T>(initial);
+        for (int i = 1; i < states.size(); i++) {
+            node = new Node<>(states.get(i), node, moveBetween(states.get(i - 1), states.get(i)));
+        }
+        return node;
+    }
+
+    private T moveBetween(EncodableState<T> from, EncodableState<T> to) {
+        long target = to.encode();
+        for (var move : from.getLegalMoves()) {
+            var state = (EncodableState<T>) from.clone();
+            state.makeMove(move);
+            if (state.encode() == target) {
+                return move;
+            }
+        }
+        throw new IllegalStateException("The states are not adjacent");
+    }
+
+}
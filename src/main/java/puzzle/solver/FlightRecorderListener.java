@@ -0,0 +1,116 @@
+package puzzle.solver;
+
+import java.util.Optional;
+
+/**
+ * A {@link SearchListener} that emits JDK Flight Recorder events: a
+ * {@code puzzle.SearchLayer} event for each depth layer, and a
+ * {@code puzzle.Search} event with the counters of {@link SearchStatistics}
+ * for the whole search.
+ *
+ * <p>The searches attach this listener by themselves when either event is
+ * enabled in a running recording, e.g., when the JVM is started with
+ * {@code -XX:StartFlightRecording}, thus they can be profiled without any
+ * change to the code.
+ */
+public class FlightRecorderListener implements SearchListener<Object> {
+
+    private final String solver;
+    private final SearchStatistics statistics = new SearchStatistics();
+    private SearchEvent searchEvent;
+    private SearchLayerEvent layerEvent;
+    private long layerExpanded;
+    private long layerGenerated;
+
+    /**
+     * Creates a {@code FlightRecorderListener} object.
+     *
+     * @param solver the name of the solver recorded in the events
+     */
+    public FlightRecorderListener(String solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * {@return a new listener if either event is enabled in a running
+     * recording, or {@code null} otherwise}
+     *
+     * @param solver the name of the solver recorded in the events
+     */
+    static FlightRecorderListener ifEnabled(String solver) {
+        if (new SearchEvent().isEnabled() || new SearchLayerEvent().isEnabled()) {
+            return new FlightRecorderListener(solver);
+        }
+        return null;
+    }
+
+    @Override
+    public void searchStarted(Node<?> root) {
+        statistics.searchStarted(root);
+        searchEvent = new SearchEvent();
+        searchEvent.begin();
+        layerEvent = null;
+    }
+
+    @Override
+    public void layerStarted(int depth) {
+        statistics.layerStarted(depth);
+        commitLayer();
+        layerEvent = new SearchLayerEvent();
+        layerEvent.depth = depth;
+        layerEvent.begin();
+        layerExpanded = statistics.getExpanded();
+        layerGenerated = statistics.getGenerated();
+    }
+
+    @Override
+    public void nodeExpanded(Node<?> node, int frontierSize) {
+        statistics.nodeExpanded(node, frontierSize);
+    }
+
+    @Override
+    public void nodeGenerated(Node<?> child) {
+        statistics.nodeGenerated(child);
+    }
+
+    @Override
+    public void duplicateGenerated(Node<?> parent, Object move) {
+        statistics.duplicateGenerated(parent, move);
+    }
+
+    @Override
+    public void searchFinished(Optional<? extends Node<?>> solution) {
+        statistics.searchFinished(solution);
+        commitLayer();
+        var event = searchEvent;
+        event.end();
+        if (event.shouldCommit()) {
+            event.solver = solver;
+            event.solved = solution.isPresent();
+            event.solutionLength = solution.map(Node::getDepth).orElse(-1);
+            event.generated = statistics.getGenerated();
+            event.expanded = statistics.getExpanded();
+            event.duplicates = statistics.getDuplicates();
+            event.peakFrontierSize = statistics.getPeakFrontierSize();
+            event.maxDepth = statistics.getMaxDepth();
+            event.allocated = statistics.getAllocatedBytes();
+            event.commit();
+        }
+    }
+
+    private void commitLayer() {
+        var event = layerEvent;
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.solver = solver;
+            event.expanded = statistics.getExpanded() - layerExpanded;
+            event.generated = statistics.getGenerated() - layerGenerated;
+            event.commit();
+        }
+        layerEvent = null;
+    }
+
+}
@@ -0,0 +1,37 @@
+package puzzle.solver;
+
+/**
+ * Estimates the number of moves needed to solve a puzzle from a state. A
+ * heuristic is admissible if it never overestimates this number, and it is
+ * consistent if the estimates of two adjacent states differ by at most one.
+ *
+ * @param <S> represents the states to be evaluated
+ */
+@FunctionalInterface
+public interface Heuristic<S> {
+
+    /**
+     * The estimate for the states from which the puzzle cannot be solved.
+     * Searches never expand such states.
+     */
+    int UNSOLVABLE = Integer.MAX_VALUE;
+
+    /**
+     * {@return the estimated number of moves needed to solve the puzzle from
+     * the state specified, or {@link #UNSOLVABLE} if the puzzle is known to
+     * be unsolvable from the state}
+     *
+     * @param state the state to be evaluated
+     */
+    int estimate(S state);
+
+    /**
+     * {@return the heuristic that estimates zero moves for every state}
+     *
+     * @param <S> represents the states to be evaluated
+     */
+    static <S> Heuristic<S> zero() {
+        return state -> 0;
+    }
+
+}
@@ -0,0 +1,211 @@
+package puzzle.solver;
+
+import puzzle.EncodableState;
+import puzzle.ReversibleState;
+import puzzle.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implements iterative deepening A* (IDA*) search to solve puzzles. Each
+ * iteration is a depth-first search that cuts off the nodes whose
+ * {@code g + h} exceeds the current bound, and the bound is raised to the
+ * least value cut off in the previous iteration. With the zero heuristic the
+ * search is plain iterative deepening depth-first search. If the heuristic is
+ * admissible, the solution found is a shortest one.
+ *
+ * <p>The search makes and undoes moves on a single copy of the initial state,
+ * thus its memory use grows only with the depth of the solution. If the state
+ * is an {@link EncodableState}, a small fixed-size transposition table prunes
+ * the states whose equivalent states were already reached at the same or at a
+ * lower depth in the same iteration. The moves of each state are tried in the order of their
+ * history scores, i.e., moves that most often led to the least cut-off values
+ * are tried first.
+ *
+ * @param <T> represents the moves that can be applied to the states
+ */
+public class IterativeDeepeningSearch<T> {
+
+    private static final int FOUND = -1;
+
+    private static final int DEFAULT_TABLE_BITS = 16;
+
+    private final Heuristic<? super State<T>> heuristic;
+    private final int tableBits;
+
+    /**
+     * Creates an {@code IterativeDeepeningSearch} object that performs
+     * iterative deepening depth-first search.
+     */
+    public IterativeDeepeningSearch() {
+        this(Heuristic.zero());
+    }
+
+    /**
+     * Creates an {@code IterativeDeepeningSearch} object that performs IDA*
+     * search with the heuristic specified.
+     *
+     * @param heuristic the heuristic guiding the search
+     */
+    public IterativeDeepeningSearch(Heuristic<? super State<T>> heuristic) {
+        this(heuristic, DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * Creates an {@code IterativeDeepeningSearch} object that performs IDA*
+     * search with the heuristic and the transposition table size specified.
+     *
+     * @param heuristic the heuristic guiding the search
+     * @param tableBits the base 2 logarithm of the number of entries of the
+     *                  transposition table
+     */
+    public IterativeDeepeningSearch(Heuristic<? super State<T>> heuristic, int tableBits) {
+        if (tableBits < 0 || tableBits > 30) {
+            throw new IllegalArgumentException("Invalid table size: " + tableBits);
+        }
+        this.heuristic = heuristic;
+        this.tableBits = tableBits;
+    }
+
+    /**
+     * Searches for a solution for the puzzle starting from the state provided.
+     * The state provided is not modified.
+     *
+     * @param state the initial state
+     * @return an {@code Optional} describing the solution for the puzzle, or an
+     * empty {@code Optional} if no solution is found
+     */
+    public Optional<Node<T>> solve(ReversibleState<T> state) {
+        @SuppressWarnings("unchecked")
+        var search = new Search((ReversibleState<T>) state.clone());
+        int bound = heuristic.estimate(state);
+        while (bound != Heuristic.UNSOLVABLE) {
+            search.iteration++;
+            int next = search.visit(0, bound);
+            if (next == FOUND) {
+                return Optional.of(search.toNode(state));
+            }
+            bound = next;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Holds the state of a single search.
+     */
+    private class Search {
+
+        private final ReversibleState<T> state;
+        private final List<T> path = new ArrayList<>();
+        private final List<List<T>> moveBuffers = new ArrayList<>();
+        private final Map<T, Integer> history = new HashMap<>();
+        private final Comparator<T> byHistory = Comparator.comparingInt(move -> -history.getOrDefault(move, 0));
+        private final long[] tableKeys;
+        private final int[] tableDepths;
+        private final int[] tableIterations;
+        private int iteration;
+
+        Search(ReversibleState<T> state) {
+            this.state = state;
+            int size = state instanceof EncodableState<T> ? 1 << tableBits : 0;
+            tableKeys = new long[size];
+            tableDepths = new int[size];
+            tableIterations = new int[size];
+        }
+
+        /**
+         * Searches the subtree of the current state.
+         *
+         * @param g the depth of the current state
+         * @param bound the bound of the current iteration
+         * @return {@code FOUND} if a solution is found, or the least
+         * {@code g + h} that exceeded the bound in the subtree
+         */
+        int visit(int g, int bound) {
+            int h = heuristic.estimate(state);
+            if (h == Heuristic.UNSOLVABLE) {
+                return Integer.MAX_VALUE;
+            }
+            if (g + h > bound) {
+                return g + h;
+            }
+            if (state.isSolved()) {
+                return FOUND;
+            }
+            if (isTransposition(g)) {
+                return Integer.MAX_VALUE;
+            }
+            if (moveBuffers.size() <= g) {
+                moveBuffers.add(new ArrayList<>());
+            }
+            var moves = moveBuffers.get(g);
+            moves.clear();
+            moves.addAll(state.getLegalMoves());
+            moves.sort(byHistory);
+            int min = Integer.MAX_VALUE;
+            T best = null;
+            for (var move : moves) {
+                state.makeMove(move);
+                path.add(move);
+                int result = visit(g + 1, bound);
+                if (result == FOUND) {
+                    return FOUND;
+                }
+                path.remove(path.size() - 1);
+                state.undoMove(move);
+                if (result < min) {
+                    min = result;
+                    best = move;
+                }
+            }
+            if (best != null) {
+                history.merge(best, 1, Integer::sum);
+            }
+            return min;
+        }
+
+        /**
+         * Checks the current state against the transposition table, and
+         * records it if it is not pruned.
+         *
+         * @param g the depth of the current state
+         * @return {@code true} if the state was already reached at the same or
+         * at a lower depth in the current iteration
+         */
+        private boolean isTransposition(int g) {
+            if (tableKeys.length == 0) {
+                return false;
+            }
+            long code = ((EncodableState<T>) state).canonicalCode();
+            long h = code * 0x9E3779B97F4A7C15L;
+            int index = (int) (h >>> (64 - tableBits)) & (tableKeys.length - 1);
+            if (tableIterations[index] == iteration && tableKeys[index] == code && tableDepths[index] <= g) {
+                return true;
+            }
+            tableKeys[index] = code;
+            tableDepths[index] = g;
+            tableIterations[index] = iteration;
+            return false;
+        }
+
+        /**
+         * {@return the chain of nodes that leads from the initial state along
+         * the path found}
+         */
+        Node<T> toNode(State<T> initial) {
+            var current = initial.clone();
+            var node = new Node<>(current.clone());
+            for (var move : path) {
+                current.makeMove(move);
+                node = new Node<>(current.clone(), node, move);
+            }
+            return node;
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+package puzzle.solver;
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive {@code long} values that uses open addressing with
+ * linear probing. The capacity of the table is always a power of two and is
+ * doubled whenever the table becomes three-quarters full. Values are stored
+ * without boxing, thus each element takes eight bytes of the table.
+ */
+public class LongHashSet {
+
+    private static final int DEFAULT_CAPACITY = 1 << 10;
+
+    private static final long EMPTY = 0L;
+
+    private long[] table;
+    private int mask;
+    private int size;
+    private int threshold;
+    private boolean containsEmpty;
+
+    /**
+     * Creates an empty set with the default initial capacity.
+     */
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty set that can hold the number of elements specified
+     * without growing.
+     *
+     * @param expectedSize the number of elements expected
+     */
+    public LongHashSet(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long capacity = Math.max(2L, (long) Math.ceil(expectedSize / 0.75));
+        long size = Long.highestOneBit(capacity - 1) << 1;
+        if (size > 1 << 30) {
+            throw new IllegalArgumentException("Too many elements: " + expectedSize);
+        }
+        return (int) size;
+    }
+
+    private void allocate(int capacity) {
+        table = new long[capacity];
+        mask = capacity - 1;
+        threshold = capacity / 4 * 3;
+    }
+
+    private static int hash(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Adds the value specified to the set.
+     *
+     * @param value the value to be added
+     * @return {@code true} if the set did not already contain the value
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        int index = hash(value) & mask;
+        while (table[index] != EMPTY) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        if (++size >= threshold) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * {@return whether the set contains the value specified}
+     *
+     * @param value the value to be looked up
+     */
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+        int index = hash(value) & mask;
+        while (table[index] != EMPTY) {
+            if (table[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * {@return the number of elements in the set}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@return whether the set is empty}
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all elements from the set. The capacity of the table is kept.
+     */
+    public void clear() {
+        Arrays.fill(table, EMPTY);
+        containsEmpty = false;
+        size = 0;
+    }
+
+    private void grow() {
+        if (table.length == 1 << 30) {
+            throw new IllegalStateException("The set cannot grow any further");
+        }
+        long[] old = table;
+        allocate(old.length << 1);
+        for (long value : old) {
+            if (value != EMPTY) {
+                int index = hash(value) & mask;
+                while (table[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = value;
+            }
+        }
+    }
+
+}
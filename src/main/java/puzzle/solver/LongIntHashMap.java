@@ -0,0 +1,164 @@
+package puzzle.solver;
+
+/**
+ * A map from primitive {@code long} keys to primitive {@code int} values that
+ * uses open addressing with linear probing. The capacity of the table is always
+ * a power of two and is doubled whenever the table becomes three-quarters
+ * full. Neither the keys nor the values are boxed.
+ */
+public class LongIntHashMap {
+
+    private static final int DEFAULT_CAPACITY = 1 << 10;
+
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int threshold;
+    private boolean containsEmpty;
+    private int emptyValue;
+
+    /**
+     * Creates an empty map with the default initial capacity.
+     */
+    public LongIntHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty map that can hold the number of entries specified
+     * without growing.
+     *
+     * @param expectedSize the number of entries expected
+     */
+    public LongIntHashMap(int expectedSize) {
+        long capacity = Math.max(2L, (long) Math.ceil(expectedSize / 0.75));
+        long tableSize = Long.highestOneBit(capacity - 1) << 1;
+        if (tableSize > 1 << 30) {
+            throw new IllegalArgumentException("Too many entries: " + expectedSize);
+        }
+        allocate((int) tableSize);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = capacity / 4 * 3;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int indexOf(long key) {
+        int index = hash(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Associates the value specified with the key specified.
+     *
+     * @param key the key
+     * @param value the value to be associated with the key
+     */
+    public void put(long key, int value) {
+        if (key == EMPTY) {
+            if (!containsEmpty) {
+                containsEmpty = true;
+                size++;
+            }
+            emptyValue = value;
+            return;
+        }
+        int index = hash(key) & mask;
+        while (keys[index] != EMPTY) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size >= threshold) {
+            grow();
+        }
+    }
+
+    /**
+     * Associates the value specified with the key specified, unless the key
+     * is already associated with a value.
+     *
+     * @param key the key
+     * @param value the value to be associated with the key
+     * @return {@code true} if the map did not already contain the key
+     */
+    public boolean putIfAbsent(long key, int value) {
+        if (containsKey(key)) {
+            return false;
+        }
+        put(key, value);
+        return true;
+    }
+
+    /**
+     * {@return the value associated with the key specified, or the default
+     * value if the map does not contain the key}
+     *
+     * @param key the key
+     * @param defaultValue the value to be returned if the key is absent
+     */
+    public int getOrDefault(long key, int defaultValue) {
+        if (key == EMPTY) {
+            return containsEmpty ? emptyValue : defaultValue;
+        }
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : defaultValue;
+    }
+
+    /**
+     * {@return whether the map contains the key specified}
+     *
+     * @param key the key
+     */
+    public boolean containsKey(long key) {
+        return key == EMPTY ? containsEmpty : indexOf(key) >= 0;
+    }
+
+    /**
+     * {@return the number of entries in the map}
+     */
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        if (keys.length == 1 << 30) {
+            throw new IllegalStateException("The map cannot grow any further");
+        }
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = hash(oldKeys[i]) & mask;
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+}
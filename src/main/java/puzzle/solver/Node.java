@@ -2,6 +2,9 @@ package puzzle.solver;
 
 import puzzle.State;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -13,9 +16,10 @@ import java.util.Set;
 public class Node<T> {
 
     private final State<T> state;
-    private final Set<T> moves;
+    private Set<T> moves;
     private final Node<T> parent;
     private final T move;
+    private final int depth;
 
     /**
      * Creates a {@code Node} without a parent, i.e., a root node.
@@ -35,9 +39,9 @@ public class Node<T> {
      */
     public Node(State<T> state, Node<T> parent, T move) {
         this.state = state;
-        this.moves = state.getLegalMoves();
         this.parent = parent;
         this.move = move;
+        this.depth = parent == null ? 0 : parent.depth + 1;
     }
 
     /**
@@ -69,12 +73,60 @@ public class Node<T> {
         return Optional.ofNullable(move);
     }
 
+    /**
+     * {@return the depth of the node, i.e., the number of moves that lead to
+     * the state from the root node}
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the nodes of the path from the root node to this node. The parent chain is walked
+     * iteratively, thus the length of the path is not limited by the depth of the stack.
+     *
+     * @return the nodes of the path, starting with the root node and ending with this node
+     */
+    public List<Node<T>> getPath() {
+        var path = new ArrayList<Node<T>>(depth + 1);
+        for (var node = this; node != null; node = node.parent) {
+            path.add(node);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * {@return the moves that lead from the state of the root node to the state of this node, in
+     * the order they are applied}
+     */
+    public List<T> getMoves() {
+        var moves = new ArrayList<T>(depth);
+        for (var node = this; node.parent != null; node = node.parent) {
+            moves.add(node.move);
+        }
+        Collections.reverse(moves);
+        return moves;
+    }
+
+    /**
+     * {@return the legal moves of the state not applied yet} They are computed
+     * when the node is first expanded, thus nodes that are never expanded do
+     * not compute them.
+     */
+    private Set<T> moves() {
+        if (moves == null) {
+            moves = state.getLegalMoves();
+        }
+        return moves;
+    }
+
     /**
      * {@return whether the node has at least one child node to be created with
      * the {@link #nextChild()} method}
      */
     public boolean hasNextChild() {
-        return !moves.isEmpty();
+        return !moves().isEmpty();
     }
 
     /**
@@ -86,23 +138,47 @@ public class Node<T> {
      * empty {@code Optional} if there are no more children
      */
     public Optional<Node<T>> nextChild() {
+        return nextMove().map(this::child);
+    }
+
+    /**
+     * Returns the next legal move of the state, without creating the child
+     * it leads to. The move is removed from the set of legal moves, thus the
+     * child is not created by {@link #nextChild()} either. Searches use it to
+     * create the child with {@link #child(Object)} only if its state is new.
+     *
+     * @return an {@code Optional} describing the next move, or an empty
+     * {@code Optional} if there are no more moves
+     */
+    public Optional<T> nextMove() {
         if (!hasNextChild()) {
             return Optional.empty();
         }
         var iterator = moves.iterator();
         var move = iterator.next();
         iterator.remove();
+        return Optional.of(move);
+    }
+
+    /**
+     * Creates the child of the node by applying the move specified to a copy
+     * of the state.
+     *
+     * @param move a legal move of the state
+     * @return the child of the node
+     */
+    public Node<T> child(T move) {
         var newState = state.clone();
         newState.makeMove(move);
-        return Optional.of(new Node<>(newState, this, move));
+        return new Node<>(newState, this, move);
     }
 
     @Override
     public boolean equals(Object o) {
         if (o == this) {
-            return false;
+            return true;
         }
-        return (o instanceof Node other) && state.equals(other.getState());
+        return (o instanceof Node<?> other) && state.equals(other.getState());
     }
 
     @Override
@@ -0,0 +1,332 @@
+package puzzle.solver;
+
+import puzzle.EncodableState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Implements hash-distributed parallel A* (HDA*) to solve puzzles. Every
+ * state is owned by one of the worker threads, chosen by the hash of its
+ * canonical code. Each worker has its own open list and its own table of the
+ * least depths of its states, thus they are not shared and need no locking.
+ * A worker sends the children it generates for states owned by other workers
+ * in batches through lock-free mailboxes.
+ *
+ * <p>The first solution found is not necessarily a shortest one, since the
+ * workers expand nodes of different priorities at the same time. A solution
+ * sets the bound of the search, and the search goes on until no worker has
+ * a node whose priority {@code g + h} is below the bound, so the solution
+ * returned is a shortest one if the heuristic is admissible. Termination is
+ * detected with a single counter of the active workers and of the batches in
+ * flight: a worker that has no more work decrements it, and receiving a batch
+ * moves the count of the batch to the receiving worker, thus the counter
+ * reaches zero only if no work is left anywhere.</p>
+ *
+ * <p>The heuristic is called by all of the workers concurrently, thus it
+ * must be thread-safe. The solution has the same shape as that of
+ * {@link BestFirstSearch}: the node of the goal, whose parent chain leads
+ * back to the initial state.</p>
+ *
+ * @param <T> represents the moves that can be applied to the states
+ */
+public class ParallelBestFirstSearch<T> {
+
+    /**
+     * The number of children sent to another worker in a batch.
+     */
+    private static final int BATCH_SIZE = 64;
+
+    /**
+     * The number of nodes a worker expands between two checks of its mailbox.
+     */
+    private static final int EXPANSIONS_PER_ROUND = 256;
+
+    /**
+     * The time an idle worker waits before checking its mailbox again.
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Heuristic<? super EncodableState<T>> heuristic;
+    private final int parallelism;
+
+    /**
+     * Creates a {@code ParallelBestFirstSearch} object that uses as many
+     * threads as there are available processors.
+     *
+     * @param heuristic the heuristic guiding the search, which must be
+     *                  thread-safe
+     */
+    public ParallelBestFirstSearch(Heuristic<? super EncodableState<T>> heuristic) {
+        this(heuristic, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a {@code ParallelBestFirstSearch} object that uses the number
+     * of threads specified.
+     *
+     * @param heuristic the heuristic guiding the search, which must be
+     *                  thread-safe
+     * @param parallelism the number of threads
+     */
+    public ParallelBestFirstSearch(Heuristic<? super EncodableState<T>> heuristic, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive: " + parallelism);
+        }
+        this.heuristic = heuristic;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Searches for a solution for the puzzle starting from the state provided.
+     * The solution is a shortest one if the heuristic is admissible.
+     *
+     * @param state the initial state
+     * @return an {@code Optional} describing the solution for the puzzle, or an
+     * empty {@code Optional} if no solution is found
+     */
+    public Optional<Node<T>> solve(EncodableState<T> state) {
+        int h = heuristic.estimate(state);
+        if (h == Heuristic.UNSOLVABLE) {
+            return Optional.empty();
+        }
+        return new Search(state, h).run();
+    }
+
+    /**
+     * An element of the open lists and of the batches.
+     *
+     * @param node the node to be expanded
+     * @param h the estimate of the heuristic for the state of the node
+     * @param <T> represents the moves that can be applied to the states
+     */
+    private record Entry<T>(Node<T> node, int h) {
+
+        long code() {
+            return ((EncodableState<T>) node.getState()).canonicalCode();
+        }
+    }
+
+    /**
+     * The state of a single search shared by the workers.
+     */
+    private final class Search {
+
+        private final List<Worker> workers = new ArrayList<>(parallelism);
+
+        /**
+         * The number of active workers plus the number of batches in flight.
+         */
+        private final AtomicLong work = new AtomicLong(parallelism);
+
+        private final AtomicInteger bound = new AtomicInteger(Integer.MAX_VALUE);
+        private final AtomicReference<Node<T>> incumbent = new AtomicReference<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private volatile boolean done;
+
+        Search(EncodableState<T> state, int h) {
+            for (int i = 0; i < parallelism; i++) {
+                workers.add(new Worker());
+            }
+            var start = new Entry<>(new Node<>(state), h);
+            workers.get(owner(start.code())).receive(start);
+        }
+
+        Optional<Node<T>> run() {
+            var threads = new ArrayList<Thread>(parallelism);
+            for (var worker : workers) {
+                threads.add(Thread.ofPlatform().name("hda-worker-", threads.size()).start(worker::run));
+            }
+            try {
+                for (var thread : threads) {
+                    thread.join();
+                }
+            } catch (InterruptedException e) {
+                done = true;
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("The search was interrupted", e);
+            }
+            if (failure.get() != null) {
+                throw new IllegalStateException("A worker of the search failed", failure.get());
+            }
+            return Optional.ofNullable(incumbent.get());
+        }
+
+        /**
+         * {@return the index of the worker that owns the state of the code}
+         */
+        private int owner(long code) {
+            int hash = Long.hashCode(code * 0x9E3779B97F4A7C15L);
+            return Math.floorMod(hash ^ (hash >>> 16), parallelism);
+        }
+
+        /**
+         * Records a solution if it is shorter than the best one found so far.
+         */
+        private void offer(Node<T> node) {
+            int depth = node.getDepth();
+            int current;
+            while (depth < (current = bound.get())) {
+                if (bound.compareAndSet(current, depth)) {
+                    incumbent.set(node);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Marks the end of the work of a worker or of a batch, and ends the
+         * search if no work is left.
+         */
+        private void finishWork() {
+            if (work.decrementAndGet() == 0) {
+                done = true;
+            }
+        }
+
+        private final class Worker {
+
+            private final int index = workers.size();
+            private final Queue<List<Entry<T>>> mailbox = new ConcurrentLinkedQueue<>();
+            private final List<List<Entry<T>>> outboxes = new ArrayList<>(parallelism);
+            private BucketQueue<Entry<T>> open = new BucketQueue<>();
+            private final LongIntHashMap depths = new LongIntHashMap();
+            private boolean active = true;
+
+            Worker() {
+                for (int i = 0; i < parallelism; i++) {
+                    outboxes.add(new ArrayList<>(BATCH_SIZE));
+                }
+            }
+
+            void run() {
+                try {
+                    while (!done) {
+                        drainMailbox();
+                        if (active && hasUsefulWork()) {
+                            expand();
+                            flushOutboxes();
+                        } else if (active) {
+                            flushOutboxes();
+                            active = false;
+                            finishWork();
+                        } else if (mailbox.isEmpty()) {
+                            LockSupport.parkNanos(IDLE_PARK_NANOS);
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                    done = true;
+                }
+            }
+
+            /**
+             * Adds the entries of the batches received to the open list. An
+             * idle worker becomes active with the first batch, which takes
+             * over the count of the batch in {@link #work}.
+             */
+            private void drainMailbox() {
+                List<Entry<T>> batch;
+                while ((batch = mailbox.poll()) != null) {
+                    if (active) {
+                        finishWork();
+                    } else {
+                        active = true;
+                    }
+                    for (var entry : batch) {
+                        receive(entry);
+                    }
+                }
+            }
+
+            /**
+             * Adds an entry to the open list if its state was not reached
+             * before at the same or at a lower depth.
+             */
+            void receive(Entry<T> entry) {
+                int g = entry.node().getDepth();
+                long code = entry.code();
+                if (g + entry.h() >= bound.get() || depths.getOrDefault(code, Integer.MAX_VALUE) <= g) {
+                    return;
+                }
+                depths.put(code, g);
+                open.add(g + entry.h(), entry);
+            }
+
+            /**
+             * {@return whether the open list has a node whose priority is
+             * below the bound} The open list is cleared otherwise, since the
+             * bound never increases.
+             */
+            private boolean hasUsefulWork() {
+                if (!open.isEmpty() && open.minPriority() < bound.get()) {
+                    return true;
+                }
+                open = new BucketQueue<>();
+                return false;
+            }
+
+            private void expand() {
+                for (int i = 0; i < EXPANSIONS_PER_ROUND && !open.isEmpty(); i++) {
+                    var entry = open.poll();
+                    var node = entry.node();
+                    int g = node.getDepth();
+                    if (g + entry.h() >= bound.get() || depths.getOrDefault(entry.code(), Integer.MAX_VALUE) < g) {
+                        continue;
+                    }
+                    if (node.getState().isSolved()) {
+                        offer(node);
+                        continue;
+                    }
+                    while (node.hasNextChild()) {
+                        var child = node.nextChild().orElseThrow();
+                        int h = heuristic.estimate((EncodableState<T>) child.getState());
+                        if (h == Heuristic.UNSOLVABLE || g + 1 + h >= bound.get()) {
+                            continue;
+                        }
+                        var childEntry = new Entry<>(child, h);
+                        int owner = owner(childEntry.code());
+                        if (owner == index) {
+                            receive(childEntry);
+                        } else {
+                            var outbox = outboxes.get(owner);
+                            outbox.add(childEntry);
+                            if (outbox.size() == BATCH_SIZE) {
+                                send(workers.get(owner), outbox);
+                            }
+                        }
+                    }
+                }
+            }
+
+            private void flushOutboxes() {
+                for (int i = 0; i < parallelism; i++) {
+                    if (!outboxes.get(i).isEmpty()) {
+                        send(workers.get(i), outboxes.get(i));
+                    }
+                }
+            }
+
+            /**
+             * Sends the entries of the outbox to the worker, and clears the
+             * outbox. The batch is counted in {@link #work} before it is
+             * sent, while this worker is still active, thus the counter
+             * cannot reach zero meanwhile.
+             */
+            private void send(Worker worker, List<Entry<T>> outbox) {
+                work.incrementAndGet();
+                worker.mailbox.add(List.copyOf(outbox));
+                outbox.clear();
+            }
+        }
+    }
+
+}
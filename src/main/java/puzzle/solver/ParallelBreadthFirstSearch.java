@@ -0,0 +1,98 @@
+package puzzle.solver;
+
+import puzzle.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Implements level-synchronous parallel breadth-first search to solve puzzles.
+ * The nodes of each depth layer are expanded in parallel on a
+ * {@link ForkJoinPool}, and the children are deduplicated in a concurrent
+ * visited set, keyed on the canonical codes of encodable states. The next
+ * layer is started only when the current one is finished, thus the solution
+ * found is a shortest one, just like that of {@link BreadthFirstSearch}.
+ *
+ * @param <T> represents the moves that can be applied to the states
+ */
+public class ParallelBreadthFirstSearch<T> {
+
+    private final int parallelism;
+
+    /**
+     * Creates a {@code ParallelBreadthFirstSearch} object that uses as many
+     * threads as there are available processors.
+     */
+    public ParallelBreadthFirstSearch() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a {@code ParallelBreadthFirstSearch} object that uses the number
+     * of threads specified.
+     *
+     * @param parallelism the number of threads
+     */
+    public ParallelBreadthFirstSearch(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Searches for the shortest solution for the puzzle starting from the state
+     * provided.
+     *
+     * @param state the initial state
+     * @return an {@code Optional} describing the shortest solution for the puzzle,
+     * or an empty {@code Optional} if no solution is found
+     */
+    public Optional<Node<T>> solve(State<T> state) {
+        var start = new Node<>(state);
+        if (state.isSolved()) {
+            return Optional.of(start);
+        }
+        var seen = VisitedSet.createConcurrent(state, parallelism);
+        seen.add(start);
+        List<Node<T>> layer = List.of(start);
+        var pool = new ForkJoinPool(parallelism);
+        try {
+            while (!layer.isEmpty()) {
+                var current = layer;
+                layer = pool.submit(() -> current.parallelStream()
+                                .flatMap(node -> expand(node, seen).stream())
+                                .toList())
+                        .get();
+                for (var node : layer) {
+                    if (node.getState().isSolved()) {
+                        return Optional.of(node);
+                    }
+                }
+            }
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The search was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The search failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private List<Node<T>> expand(Node<T> node, VisitedSet<T> seen) {
+        var children = new ArrayList<Node<T>>();
+        while (node.hasNextChild()) {
+            var child = seen.addChild(node, node.nextMove().orElseThrow());
+            if (child != null) {
+                children.add(child);
+            }
+        }
+        return children;
+    }
+
+}
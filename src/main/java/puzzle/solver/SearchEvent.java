@@ -0,0 +1,48 @@
+package puzzle.solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JDK Flight Recorder event of a whole search.
+ *
+ * @see FlightRecorderListener
+ */
+@Name("puzzle.Search")
+@Label("Search")
+@Category({"Puzzle", "Solver"})
+@Description("A search for the solution of a puzzle")
+class SearchEvent extends jdk.jfr.Event {
+
+    @Label("Solver")
+    String solver;
+
+    @Label("Solved")
+    boolean solved;
+
+    @Label("Solution Length")
+    int solutionLength;
+
+    @Label("Nodes Generated")
+    long generated;
+
+    @Label("Nodes Expanded")
+    long expanded;
+
+    @Label("Duplicates")
+    long duplicates;
+
+    @Label("Peak Frontier Size")
+    int peakFrontierSize;
+
+    @Label("Maximum Depth")
+    int maxDepth;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocated;
+
+}
@@ -0,0 +1,31 @@
+package puzzle.solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JDK Flight Recorder event of the expansion of a depth layer.
+ *
+ * @see FlightRecorderListener
+ */
+@Name("puzzle.SearchLayer")
+@Label("Search Layer")
+@Category({"Puzzle", "Solver"})
+@Description("The expansion of the nodes of a depth layer")
+class SearchLayerEvent extends jdk.jfr.Event {
+
+    @Label("Solver")
+    String solver;
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Nodes Expanded")
+    long expanded;
+
+    @Label("Nodes Generated")
+    long generated;
+
+}
@@ -0,0 +1,117 @@
+package puzzle.solver;
+
+import java.util.Optional;
+
+/**
+ * Receives the events of a search. All of the methods do nothing by default,
+ * thus an implementation needs to override only the events it is interested
+ * in. The methods are called on the thread performing the search, and they
+ * should return quickly.
+ *
+ * @param <T> represents the moves that can be applied to the states
+ * @see SearchStatistics
+ */
+public interface SearchListener<T> {
+
+    /**
+     * Called once before the search starts.
+     *
+     * @param root the node of the initial state
+     */
+    default void searchStarted(Node<? extends T> root) {
+    }
+
+    /**
+     * Called when the search starts to expand the nodes of a new depth layer.
+     *
+     * @param depth the depth of the layer
+     */
+    default void layerStarted(int depth) {
+    }
+
+    /**
+     * Called when the children of a node are about to be generated.
+     *
+     * @param node the node being expanded
+     * @param frontierSize the number of nodes waiting to be expanded, not
+     *                     counting the node being expanded
+     */
+    default void nodeExpanded(Node<? extends T> node, int frontierSize) {
+    }
+
+    /**
+     * Called for each child generated whose state was not visited before.
+     *
+     * @param child the node generated
+     */
+    default void nodeGenerated(Node<? extends T> child) {
+    }
+
+    /**
+     * Called for each move that leads to a state already visited. No node is
+     * created for such a move, thus the parent and the move are passed
+     * instead.
+     *
+     * @param parent the node being expanded
+     * @param move the move that leads to the state already visited
+     */
+    default void duplicateGenerated(Node<? extends T> parent, T move) {
+    }
+
+    /**
+     * Called once after the search is finished.
+     *
+     * @param solution the solution found, or an empty {@code Optional} if no
+     *                 solution is found
+     */
+    default void searchFinished(Optional<? extends Node<? extends T>> solution) {
+    }
+
+    /**
+     * {@return a listener that passes each event to this listener and then to
+     * the listener specified}
+     *
+     * @param other the listener to be called after this one
+     */
+    default SearchListener<T> andThen(SearchListener<? super T> other) {
+        var first = this;
+        return new SearchListener<>() {
+            @Override
+            public void searchStarted(Node<? extends T> root) {
+                first.searchStarted(root);
+                other.searchStarted(root);
+            }
+
+            @Override
+            public void layerStarted(int depth) {
+                first.layerStarted(depth);
+                other.layerStarted(depth);
+            }
+
+            @Override
+            public void nodeExpanded(Node<? extends T> node, int frontierSize) {
+                first.nodeExpanded(node, frontierSize);
+                other.nodeExpanded(node, frontierSize);
+            }
+
+            @Override
+            public void nodeGenerated(Node<? extends T> child) {
+                first.nodeGenerated(child);
+                other.nodeGenerated(child);
+            }
+
+            @Override
+            public void duplicateGenerated(Node<? extends T> parent, T move) {
+                first.duplicateGenerated(parent, move);
+                other.duplicateGenerated(parent, move);
+            }
+
+            @Override
+            public void searchFinished(Optional<? extends Node<? extends T>> solution) {
+                first.searchFinished(solution);
+                other.searchFinished(solution);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,161 @@
+package puzzle.solver;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A {@link SearchListener} that counts the events of a search. An object can
+ * be reused for several searches, each search resets the counters when it
+ * starts.
+ *
+ * <p>The bytes allocated are measured on the thread performing the search
+ * with {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()},
+ * and they are not available if the JVM does not support it.
+ */
+public class SearchStatistics implements SearchListener<Object> {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+
+    private long generated;
+    private long expanded;
+    private long duplicates;
+    private int peakFrontierSize;
+    private int maxDepth;
+    private final List<Duration> layerTimes = new ArrayList<>();
+    private long layerStart;
+    private long start;
+    private long elapsed;
+    private long allocationStart;
+    private long allocatedBytes = -1;
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean;
+        }
+        return null;
+    }
+
+    @Override
+    public void searchStarted(Node<?> root) {
+        generated = 0;
+        expanded = 0;
+        duplicates = 0;
+        peakFrontierSize = 1;
+        maxDepth = 0;
+        layerTimes.clear();
+        elapsed = 0;
+        allocatedBytes = -1;
+        allocationStart = THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+        start = System.nanoTime();
+        layerStart = start;
+    }
+
+    @Override
+    public void layerStarted(int depth) {
+        long now = System.nanoTime();
+        if (depth > 0) {
+            layerTimes.add(Duration.ofNanos(now - layerStart));
+        }
+        layerStart = now;
+        maxDepth = Math.max(maxDepth, depth);
+    }
+
+    @Override
+    public void nodeExpanded(Node<?> node, int frontierSize) {
+        expanded++;
+        peakFrontierSize = Math.max(peakFrontierSize, frontierSize + 1);
+        maxDepth = Math.max(maxDepth, node.getDepth());
+    }
+
+    @Override
+    public void nodeGenerated(Node<?> child) {
+        generated++;
+    }
+
+    @Override
+    public void duplicateGenerated(Node<?> parent, Object move) {
+        generated++;
+        duplicates++;
+    }
+
+    @Override
+    public void searchFinished(Optional<? extends Node<?>> solution) {
+        long now = System.nanoTime();
+        layerTimes.add(Duration.ofNanos(now - layerStart));
+        elapsed = now - start;
+        if (allocationStart >= 0) {
+            allocatedBytes = THREADS.getCurrentThreadAllocatedBytes() - allocationStart;
+        }
+    }
+
+    /**
+     * {@return the number of nodes generated, including the duplicates}
+     */
+    public long getGenerated() {
+        return generated;
+    }
+
+    /**
+     * {@return the number of nodes expanded}
+     */
+    public long getExpanded() {
+        return expanded;
+    }
+
+    /**
+     * {@return the number of nodes generated whose state was already visited}
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * {@return the largest number of nodes that were waiting to be expanded at
+     * the same time}
+     */
+    public int getPeakFrontierSize() {
+        return peakFrontierSize;
+    }
+
+    /**
+     * {@return the depth of the deepest node expanded}
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * {@return the time spent on each depth layer, indexed by the depth}
+     */
+    public List<Duration> getLayerTimes() {
+        return Collections.unmodifiableList(layerTimes);
+    }
+
+    /**
+     * {@return the duration of the search}
+     */
+    public Duration getElapsed() {
+        return Duration.ofNanos(elapsed);
+    }
+
+    /**
+     * {@return the number of bytes allocated by the thread performing the
+     * search, or {@code -1} if it cannot be measured}
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("generated=%d expanded=%d duplicates=%d peakFrontier=%d maxDepth=%d "
+                        + "elapsed=%.1fms allocated=%d",
+                generated, expanded, duplicates, peakFrontierSize, maxDepth, elapsed / 1e6, allocatedBytes);
+    }
+
+}
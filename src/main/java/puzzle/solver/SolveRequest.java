@@ -0,0 +1,99 @@
+package puzzle.solver;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * The budgets of a solve: a wall-clock deadline, a cap on the number of
+ * nodes expanded, a cap on the estimated memory used by the tables of the
+ * search, and a token through which the solve can be cancelled. A solve that
+ * exhausts a budget stops, and reports which budget was exhausted in its
+ * {@link SolveResult}.
+ *
+ * <p>The memory used by a search is estimated from the number of states it
+ * stores and from the typical size of a stored state, thus it bounds the
+ * growth of the tables, but it is not an exact measure of the heap.</p>
+ *
+ * @param deadline the time after which the solve is stopped
+ * @param maxExpansions the largest number of nodes expanded
+ * @param maxMemoryBytes the largest estimated memory in bytes
+ * @param cancellationToken the token through which the solve is cancelled
+ */
+public record SolveRequest(Instant deadline, long maxExpansions, long maxMemoryBytes,
+                           CancellationToken cancellationToken) {
+
+    /**
+     * Creates a {@code SolveRequest} object.
+     *
+     * @param deadline the time after which the solve is stopped
+     * @param maxExpansions the largest number of nodes expanded
+     * @param maxMemoryBytes the largest estimated memory in bytes
+     * @param cancellationToken the token through which the solve is cancelled
+     * @throws IllegalArgumentException if a cap is negative
+     */
+    public SolveRequest {
+        Objects.requireNonNull(deadline);
+        Objects.requireNonNull(cancellationToken);
+        if (maxExpansions < 0 || maxMemoryBytes < 0) {
+            throw new IllegalArgumentException("The caps must not be negative");
+        }
+    }
+
+    /**
+     * {@return a request without a deadline and without caps, with a new
+     * cancellation token}
+     */
+    public static SolveRequest unlimited() {
+        return new SolveRequest(Instant.MAX, Long.MAX_VALUE, Long.MAX_VALUE, new CancellationToken());
+    }
+
+    /**
+     * {@return a copy of the request with the deadline specified}
+     *
+     * @param deadline the time after which the solve is stopped
+     */
+    public SolveRequest withDeadline(Instant deadline) {
+        return new SolveRequest(deadline, maxExpansions, maxMemoryBytes, cancellationToken);
+    }
+
+    /**
+     * {@return a copy of the request whose deadline is the timeout specified
+     * from now}
+     *
+     * @param timeout the time the solve may take
+     */
+    public SolveRequest withTimeout(Duration timeout) {
+        return withDeadline(Instant.now().plus(timeout));
+    }
+
+    /**
+     * {@return a copy of the request with the cap on the number of nodes
+     * expanded specified}
+     *
+     * @param maxExpansions the largest number of nodes expanded
+     */
+    public SolveRequest withMaxExpansions(long maxExpansions) {
+        return new SolveRequest(deadline, maxExpansions, maxMemoryBytes, cancellationToken);
+    }
+
+    /**
+     * {@return a copy of the request with the cap on the estimated memory
+     * specified}
+     *
+     * @param maxMemoryBytes the largest estimated memory in bytes
+     */
+    public SolveRequest withMaxMemoryBytes(long maxMemoryBytes) {
+        return new SolveRequest(deadline, maxExpansions, maxMemoryBytes, cancellationToken);
+    }
+
+    /**
+     * {@return a copy of the request with the cancellation token specified}
+     *
+     * @param cancellationToken the token through which the solve is cancelled
+     */
+    public SolveRequest withCancellationToken(CancellationToken cancellationToken) {
+        return new SolveRequest(deadline, maxExpansions, maxMemoryBytes, cancellationToken);
+    }
+
+}
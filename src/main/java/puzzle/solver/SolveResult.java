@@ -0,0 +1,79 @@
+package puzzle.solver;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * The result of a solve made with a {@link SolveRequest}: the outcome, the
+ * solution if one was found, and the statistics of the search up to the point
+ * where it finished or stopped.
+ *
+ * @param outcome the outcome of the solve
+ * @param solution the solution, if the outcome is {@link Outcome#SOLVED}
+ * @param expanded the number of nodes expanded
+ * @param stored the number of states stored in the tables of the search
+ * @param estimatedMemoryBytes the estimated memory used by the tables
+ * @param elapsed the time taken
+ * @param <T> represents the moves that can be applied to the states
+ */
+public record SolveResult<T>(Outcome outcome, Optional<Node<T>> solution, long expanded, long stored,
+                             long estimatedMemoryBytes, Duration elapsed) {
+
+    /**
+     * The outcomes of a solve.
+     */
+    public enum Outcome {
+
+        /**
+         * A solution was found.
+         */
+        SOLVED,
+
+        /**
+         * The search space was exhausted, thus the puzzle cannot be solved.
+         */
+        NO_SOLUTION,
+
+        /**
+         * The deadline was reached.
+         */
+        DEADLINE_EXCEEDED,
+
+        /**
+         * The cap on the number of nodes expanded was reached.
+         */
+        EXPANSION_LIMIT_REACHED,
+
+        /**
+         * The cap on the estimated memory was reached.
+         */
+        MEMORY_LIMIT_REACHED,
+
+        /**
+         * The solve was cancelled.
+         */
+        CANCELLED;
+
+        /**
+         * {@return whether the solve stopped before it was decided whether the
+         * puzzle can be solved}
+         */
+        public boolean isStoppedEarly() {
+            return this != SOLVED && this != NO_SOLUTION;
+        }
+    }
+
+    /**
+     * {@return the result of a solve answered without a search, e.g., from a
+     * table}
+     *
+     * @param solution the solution, or an empty {@code Optional} if the
+     *                 puzzle cannot be solved
+     * @param <T> represents the moves that can be applied to the states
+     */
+    public static <T> SolveResult<T> of(Optional<Node<T>> solution) {
+        return new SolveResult<>(solution.isPresent() ? Outcome.SOLVED : Outcome.NO_SOLUTION, solution,
+                0, 0, 0, Duration.ZERO);
+    }
+
+}
@@ -0,0 +1,99 @@
+package puzzle.solver;
+
+import puzzle.EncodableState;
+import puzzle.State;
+
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Keeps track of the states visited by a search. The states of encodable
+ * states are kept track of by their canonical codes, which are computed from
+ * the parent and the move with {@link EncodableState#canonicalCodeAfter(Object)},
+ * thus a child is only created if its state was not visited before.
+ *
+ * @param <T> represents the moves that can be applied to the states
+ */
+interface VisitedSet<T> {
+
+    /**
+     * Marks the state of the node as visited.
+     *
+     * @param node the node
+     * @return {@code true} if the state was not visited before
+     */
+    boolean add(Node<T> node);
+
+    /**
+     * Marks the state created by the move as visited, and creates the child
+     * if the state was not visited before.
+     *
+     * @param parent the node whose state the move is applied to
+     * @param move a legal move of the state of the parent
+     * @return the child created by the move, or {@code null} if its state was
+     * visited before
+     */
+    Node<T> addChild(Node<T> parent, T move);
+
+    /**
+     * {@return a visited set for the states of the puzzle of the state
+     * specified, to be used by a single thread}
+     *
+     * @param state the initial state
+     * @param <T> represents the moves that can be applied to the states
+     */
+    static <T> VisitedSet<T> create(State<T> state) {
+        if (state instanceof EncodableState<T>) {
+            return ofCodes(new LongHashSet()::add);
+        }
+        return ofStates(new HashSet<State<T>>()::add);
+    }
+
+    /**
+     * {@return a thread-safe visited set for the states of the puzzle of the
+     * state specified}
+     *
+     * @param state the initial state
+     * @param parallelism the number of threads that use the set
+     * @param <T> represents the moves that can be applied to the states
+     */
+    static <T> VisitedSet<T> createConcurrent(State<T> state, int parallelism) {
+        if (state instanceof EncodableState<T>) {
+            return ofCodes(new ConcurrentLongHashSet(parallelism)::add);
+        }
+        return ofStates(ConcurrentHashMap.<State<T>>newKeySet()::add);
+    }
+
+    private static <T> VisitedSet<T> ofCodes(LongPredicate codes) {
+        return new VisitedSet<>() {
+            @Override
+            public boolean add(Node<T> node) {
+                return codes.test(((EncodableState<T>) node.getState()).canonicalCode());
+            }
+
+            @Override
+            public Node<T> addChild(Node<T> parent, T move) {
+                long code = ((EncodableState<T>) parent.getState()).canonicalCodeAfter(move);
+                return codes.test(code) ? parent.child(move) : null;
+            }
+        };
+    }
+
+    private static <T> VisitedSet<T> ofStates(Predicate<State<T>> states) {
+        return new VisitedSet<>() {
+            @Override
+            public boolean add(Node<T> node) {
+                return states.test(node.getState());
+            }
+
+            @Override
+            public Node<T> addChild(Node<T> parent, T move) {
+                var child = parent.child(move);
+                return states.test(child.getState()) ? child : null;
+            }
+        };
+    }
+
+}
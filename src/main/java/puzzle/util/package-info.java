@@ -1,4 +0,0 @@
-/**
- * Provides utilities for puzzles.
- */
-package puzzle.util;
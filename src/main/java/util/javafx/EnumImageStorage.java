@@ -29,6 +29,7 @@ import java.util.Optional;
  * an image for each of the enum constants.
  *
  * @param <T> an enum whose constants are represented by PNG images
+ * @see LazyEnumImageStorage
  */
 public class EnumImageStorage<T extends Enum<?>> implements ImageStorage<T> {
 
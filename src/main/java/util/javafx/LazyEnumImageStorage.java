@@ -0,0 +1,122 @@
+package util.javafx;
+
+import javafx.scene.image.Image;
+
+import java.util.EnumMap;
+import java.util.Optional;
+
+/**
+ * An implementation of the {@code ImageStorage} interface that associates PNG
+ * images with the constants of an enum, like {@link EnumImageStorage}, but
+ * that does not load any image when it is created. Only the locations of the
+ * images are looked up by the constructor, and an image is loaded in the
+ * background the first time it is requested, thus the thread creating the
+ * storage is not blocked by decoding the images. An image returned may still
+ * be loading, see {@link Image#progressProperty()}, and it is drawn as soon as
+ * it is loaded.
+ *
+ * <p>The images can also be requested at the size they are drawn by
+ * {@link #get(Enum, double)}. These variants are decoded at that size with
+ * smooth filtering, so they do not have to be rescaled every time they are
+ * drawn. The variants are cached in the order of their use, and the least
+ * recently used ones are evicted when their estimated memory exceeds the
+ * limit of the storage. The images at their original size are not counted
+ * against the limit, since there is at most one per constant. The caching is
+ * done by a {@link VariantCache}, which only this class creates images for.
+ *
+ * <p>The images are located like those of {@link EnumImageStorage}, and the
+ * methods of the class are thread-safe.
+ *
+ * @param <T> an enum whose constants are represented by PNG images
+ */
+public class LazyEnumImageStorage<T extends Enum<T>> implements ImageStorage<T> {
+
+    /**
+     * The limit of the estimated memory of the scaled variants used by
+     * {@link #LazyEnumImageStorage(Class)}, which is 16 MiB.
+     */
+    public static final long DEFAULT_MAX_BYTES = 16L << 20;
+
+    private final VariantCache<T, Image> cache;
+
+    /**
+     * Creates a {@code LazyEnumImageStorage} instance for the enum specified,
+     * which keeps at most {@link #DEFAULT_MAX_BYTES} of scaled variants.
+     *
+     * @param enumClass a {@code Class} object representing an enum
+     */
+    public LazyEnumImageStorage(Class<T> enumClass) {
+        this(enumClass, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a {@code LazyEnumImageStorage} instance for the enum specified.
+     *
+     * @param enumClass a {@code Class} object representing an enum
+     * @param maxBytes the limit of the estimated memory of the scaled variants
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public LazyEnumImageStorage(Class<T> enumClass, long maxBytes) {
+        var urls = new EnumMap<T, String>(enumClass);
+        var path = enumClass.getPackage().getName().replace(".", "/");
+        var loader = enumClass.getClassLoader();
+        for (var constant : enumClass.getEnumConstants()) {
+            var name = String.format("%s/%s.png", path, constant.name().toLowerCase());
+            var url = loader == null ? ClassLoader.getSystemResource(name) : loader.getResource(name);
+            if (url != null) {
+                urls.put(constant, url.toExternalForm());
+            }
+        }
+        this.cache = new VariantCache<>(enumClass, urls, maxBytes, LazyEnumImageStorage::load,
+                Image::isError);
+    }
+
+    /**
+     * {@inheritDoc} The image is loaded in the background when it is first
+     * requested.
+     *
+     * @param constant the constant for which the associated image should be
+     *                 returned
+     */
+    @Override
+    public Optional<Image> get(T constant) {
+        return cache.get(constant);
+    }
+
+    /**
+     * Returns the image associated with the constant specified, scaled to fit
+     * in a square of the size specified with its aspect ratio preserved. The
+     * variant is loaded in the background when it is first requested.
+     *
+     * @param constant the constant for which the associated image should be
+     *                 returned
+     * @param size the size of the square in pixels, which is rounded up to a
+     *             whole number of pixels
+     * @return an {@code Optional} describing the image, or an empty optional
+     * if no image is associated with the constant, or it cannot be loaded
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public Optional<Image> get(T constant, double size) {
+        if (!(size > 0)) {
+            throw new IllegalArgumentException("The size must be positive: " + size);
+        }
+        return cache.get(constant, (int) Math.ceil(size));
+    }
+
+    /**
+     * {@return the estimated memory of the scaled variants cached, in bytes}
+     */
+    public long getMemoryBytes() {
+        return cache.getMemoryBytes();
+    }
+
+    /**
+     * {@return the image at the location specified, loaded in the background
+     * and scaled to fit in a square of the size specified, or at its original
+     * size if the size is 0}
+     */
+    private static Image load(String url, int size) {
+        return new Image(url, size, size, true, true, true);
+    }
+
+}
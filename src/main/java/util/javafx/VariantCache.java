@@ -0,0 +1,169 @@
+package util.javafx;
+
+import java.lang.System.Logger;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * Caches the images associated with the constants of an enum, at their
+ * original size and in scaled variants, for {@link LazyEnumImageStorage}.
+ * The images are created by a loader function from their locations and their
+ * sizes, thus the cache does not depend on how they are decoded.
+ *
+ * <p>The variants are cached in the order of their use, and the least
+ * recently used ones are evicted when their estimated memory exceeds the
+ * limit of the cache. A variant of size {@code size} is estimated to take
+ * {@code 4 * size * size} bytes. The images at their original size are not
+ * counted against the limit, since there is at most one per constant. The
+ * constant of an image that failed to load is forgotten along with all of
+ * its images, so it is not attempted again.
+ *
+ * <p>The methods of the class are thread-safe.
+ *
+ * @param <T> an enum whose constants are associated with images
+ * @param <I> the type of the images
+ */
+final class VariantCache<T extends Enum<T>, I> {
+
+    private static final Logger logger = System.getLogger(VariantCache.class.getName());
+
+    /**
+     * Identifies a scaled variant of the image of a constant.
+     */
+    private record Variant<T>(T constant, int size) {
+    }
+
+    private final Map<T, String> urls;
+
+    private final Map<T, I> originals;
+
+    private final Map<Variant<T>, I> variants = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final long maxBytes;
+
+    private final BiFunction<String, Integer, ? extends I> loader;
+
+    private final Predicate<? super I> failed;
+
+    private long bytes;
+
+    /**
+     * Creates a {@code VariantCache} instance.
+     *
+     * @param enumClass a {@code Class} object representing the enum
+     * @param urls the locations of the images of the constants that have one
+     * @param maxBytes the limit of the estimated memory of the scaled variants
+     * @param loader creates the image at a location, scaled to fit in a
+     *               square of the size specified, or at its original size if
+     *               the size is 0
+     * @param failed tests whether an image failed to load
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    VariantCache(Class<T> enumClass, Map<T, String> urls, long maxBytes,
+                 BiFunction<String, Integer, ? extends I> loader, Predicate<? super I> failed) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("The limit must be positive: " + maxBytes);
+        }
+        this.urls = new EnumMap<>(enumClass);
+        this.urls.putAll(urls);
+        this.originals = new EnumMap<>(enumClass);
+        this.maxBytes = maxBytes;
+        this.loader = loader;
+        this.failed = failed;
+    }
+
+    /**
+     * {@return an {@code Optional} describing the image of the constant at its
+     * original size, or an empty optional if the constant has no image, or it
+     * failed to load}
+     *
+     * @param constant the constant
+     */
+    synchronized Optional<I> get(T constant) {
+        var url = urls.get(constant);
+        if (url == null) {
+            return Optional.empty();
+        }
+        var image = originals.computeIfAbsent(constant, c -> loader.apply(url, 0));
+        return checked(constant, image);
+    }
+
+    /**
+     * {@return an {@code Optional} describing the image of the constant scaled
+     * to the size specified, or an empty optional if the constant has no
+     * image, or it failed to load}
+     *
+     * @param constant the constant
+     * @param size the size of the variant in pixels, which must be positive
+     */
+    synchronized Optional<I> get(T constant, int size) {
+        var url = urls.get(constant);
+        if (url == null) {
+            return Optional.empty();
+        }
+        var key = new Variant<>(constant, size);
+        var image = variants.get(key);
+        if (image == null) {
+            image = loader.apply(url, size);
+            variants.put(key, image);
+            bytes += bytesOf(key);
+            evict();
+        }
+        return checked(constant, image);
+    }
+
+    /**
+     * {@return the estimated memory of the scaled variants cached, in bytes}
+     */
+    synchronized long getMemoryBytes() {
+        return bytes;
+    }
+
+    /**
+     * {@return the estimated memory of a variant, which has at most
+     * {@code size * size} pixels of 4 bytes}
+     */
+    private static long bytesOf(Variant<?> variant) {
+        return 4L * variant.size() * variant.size();
+    }
+
+    /**
+     * Evicts the least recently used variants until the estimated memory is
+     * within the limit, but keeps the variant most recently used.
+     */
+    private void evict() {
+        var iterator = variants.keySet().iterator();
+        while (bytes > maxBytes && variants.size() > 1) {
+            var eldest = iterator.next();
+            iterator.remove();
+            bytes -= bytesOf(eldest);
+        }
+    }
+
+    /**
+     * {@return an {@code Optional} describing the image, or an empty optional
+     * if it failed to load}. The constant of an image that failed to load is
+     * forgotten, so it is not attempted again.
+     */
+    private Optional<I> checked(T constant, I image) {
+        if (!failed.test(image)) {
+            return Optional.of(image);
+        }
+        logger.log(Logger.Level.WARNING, "Failed to load image from {0}", urls.remove(constant));
+        originals.remove(constant);
+        var iterator = variants.keySet().iterator();
+        while (iterator.hasNext()) {
+            var variant = iterator.next();
+            if (variant.constant() == constant) {
+                iterator.remove();
+                bytes -= bytesOf(variant);
+            }
+        }
+        return Optional.empty();
+    }
+
+}
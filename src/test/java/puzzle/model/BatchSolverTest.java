@@ -0,0 +1,103 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.solver.SolveRequest;
+import puzzle.solver.SolveResult;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchSolverTest {
+
+    private static String[] run(BatchSolver solver, String input, BatchSolver.Summary[] summary) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        summary[0] = solver.run(new BufferedReader(new StringReader(input)),
+                new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        var lines = bytes.toString(StandardCharsets.UTF_8).split("\\R");
+        Arrays.sort(lines);
+        return lines;
+    }
+
+    @Test
+    void solvePositions() throws IOException {
+        var start = new PuzzleState(BoardSpec.stock());
+        var solver = new BatchSolver(new SolveConnector(null), BoardSpec.stock(), 2);
+        var input = """
+                # positions
+                %d
+                RX.XB/R...B/RXXXB
+
+                RX.XB/R...B
+                RX.XB/R.R.B/RXXXB
+                """.formatted(start.encode());
+        var summary = new BatchSolver.Summary[1];
+        var lines = run(solver, input, summary);
+
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("2\tsolved\t62\t"));
+        assertTrue(lines[1].startsWith("3\tsolved\t62\t"));
+        assertTrue(lines[2].startsWith("5\tinvalid\t"));
+        assertTrue(lines[3].startsWith("6\tinvalid\t"));
+        assertEquals(2, summary[0].solved());
+        assertEquals(2, summary[0].invalid());
+        assertTrue(summary[0].p50Millis() <= summary[0].p99Millis());
+        assertTrue(summary[0].throughput() > 0);
+    }
+
+    @Test
+    void reportUnsolvablePositions() throws IOException {
+        var spec = BoardSpec.parse("R X B\n\nB X R");
+        var solver = new BatchSolver(new SolveConnector(null), spec, 1);
+        var summary = new BatchSolver.Summary[1];
+        var lines = run(solver, "RXB\n", summary);
+        assertArrayEquals(new String[] {lines[0]}, lines);
+        assertTrue(lines[0].startsWith("1\tunsolvable\t"));
+        assertEquals(1, summary[0].unsolvable());
+    }
+
+    @Test
+    void reportFailuresWithoutStoppingTheBatch() throws IOException {
+        var start = new PuzzleState(BoardSpec.stock());
+        var connector = new SolveConnector(null) {
+            @Override
+            public SolveResult<TwoPhaseMove<Position>> solvePuzzle(PuzzleState initialState, SolveRequest request) {
+                if (initialState.equals(start)) {
+                    throw new IllegalStateException("broken");
+                }
+                return super.solvePuzzle(initialState, request);
+            }
+        };
+        var solver = new BatchSolver(connector, BoardSpec.stock(), 1);
+        var other = start.clone();
+        other.makeMove(other.getLegalMoves().iterator().next());
+        var summary = new BatchSolver.Summary[1];
+        var lines = run(solver, start.encode() + "\n" + other.encode() + "\n", summary);
+        assertEquals(2, lines.length);
+        assertEquals("1\terror\tjava.lang.IllegalStateException: broken", lines[0]);
+        assertTrue(lines[1].startsWith("2\tsolved\t"));
+        assertEquals(1, summary[0].errors());
+        assertEquals(1, summary[0].solved());
+    }
+
+    @Test
+    void reportPositionsThatExhaustTheirBudget() throws IOException {
+        var start = new PuzzleState(BoardSpec.stock());
+        var solver = new BatchSolver(new SolveConnector(null), BoardSpec.stock(), 1, Duration.ofMinutes(1),
+                10);
+        var summary = new BatchSolver.Summary[1];
+        var lines = run(solver, start.encode() + "\n", summary);
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].startsWith("1\tstopped\tEXPANSION_LIMIT_REACHED\t"));
+        assertEquals(1, summary[0].stopped());
+        assertEquals(0, summary[0].unsolvable());
+    }
+}
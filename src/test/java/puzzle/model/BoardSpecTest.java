@@ -0,0 +1,106 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.solver.BestFirstSearch;
+import puzzle.solver.BreadthFirstSearch;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardSpecTest {
+
+    private static final String SMALL = """
+            R . . B
+            R X X B
+            R . . B
+
+            B . . R
+            B X X R
+            B . . R
+            """;
+
+    @Test
+    void parse() {
+        var stock = BoardSpec.builder(3, 5)
+                .block(0, 1).block(0, 3).block(2, 1).block(2, 2).block(2, 3)
+                .red(0, 0).red(1, 0).red(2, 0)
+                .blue(0, 4).blue(1, 4).blue(2, 4)
+                .redGoal(0, 4).redGoal(1, 4).redGoal(2, 4)
+                .blueGoal(0, 0).blueGoal(1, 0).blueGoal(2, 0)
+                .build();
+        assertEquals(stock, BoardSpec.stock());
+        assertEquals(stock, BoardSpec.parse(stock.toString()));
+        assertEquals(new PuzzleState(), new PuzzleState(stock));
+    }
+
+    @Test
+    void parseRejectsInvalidBoards() {
+        assertThrows(IllegalArgumentException.class, () -> BoardSpec.parse("R . B"));
+        assertThrows(IllegalArgumentException.class, () -> BoardSpec.parse("R . B\n\nB X R"));
+        assertThrows(IllegalArgumentException.class, () -> BoardSpec.parse("R R B\n\nB . R"));
+        assertThrows(IllegalArgumentException.class, () -> BoardSpec.parse("R ? B\n\nB . R"));
+        assertThrows(IllegalArgumentException.class, () -> BoardSpec.builder(8, 9));
+    }
+
+    @Test
+    void solveCustomBoard() {
+        var state = new PuzzleState(BoardSpec.parse(SMALL));
+        int expected = new BreadthFirstSearch<TwoPhaseMove<Position>>().solve(state).orElseThrow().getDepth();
+        var solution = new BestFirstSearch<TwoPhaseMove<Position>>(new StoneMatchingHeuristic(state))
+                .solve(state)
+                .orElseThrow();
+        assertTrue(solution.getState().isSolved());
+        assertEquals(expected, solution.getDepth());
+        assertEquals(expected, DistanceDatabase.generate(state).distance(state).orElseThrow());
+    }
+
+    @Test
+    void goalStates() {
+        var spec = BoardSpec.parse("""
+                R . B .
+
+                R R . B
+                """);
+        var goals = new PuzzleState(spec).goalStates();
+        assertEquals(2, goals.size());
+        assertTrue(goals.stream().allMatch(PuzzleState::isSolved));
+    }
+
+    @Test
+    void encodeLargeBoard() {
+        var codes = new HashSet<Long>();
+        var state = new PuzzleState(BoardSpec.builder(5, 8)
+                .block(2, 1).block(2, 3).block(2, 4).block(2, 6)
+                .block(0, 2).block(0, 5).block(4, 2).block(4, 5)
+                .red(0, 0).red(4, 0).blue(0, 7).blue(4, 7)
+                .redGoal(0, 7).redGoal(4, 7).blueGoal(0, 0).blueGoal(4, 0)
+                .build());
+        assertEquals(40, state.spec().cellCount());
+        for (long rank = 0; rank < state.stateCount(); rank++) {
+            assertTrue(codes.add(state.unrank(rank).encode()));
+        }
+    }
+
+    @Test
+    void symmetries() {
+        var spec = BoardSpec.stock();
+        assertEquals(1, spec.symmetries().size());
+        var symmetry = spec.symmetries().get(0);
+        assertTrue(symmetry.swapsColors());
+        assertEquals(new Position(1, 4), symmetry.apply(spec, new Position(1, 0)));
+
+        var mirror = spec.startToGoalSymmetry().orElseThrow();
+        var start = new PuzzleState(spec);
+        assertEquals(start.goalStates().get(0), start.transform(mirror));
+
+        start.makeMove(new TwoPhaseMove<>(new Position(1, 0), new Position(1, 1)));
+        var image = start.transform(symmetry);
+        assertNotEquals(start, image);
+        assertEquals(start.canonicalCode(), image.canonicalCode());
+        assertTrue(image.equivalentStates().contains(start));
+
+        assertTrue(BoardSpec.parse(SMALL).symmetries().size() > 1);
+    }
+}
@@ -0,0 +1,50 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.solver.BreadthFirstSearch;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistanceDatabaseTest {
+
+    @Test
+    void rank() {
+        PuzzleState puzzleState = new PuzzleState();
+        assertEquals(4200, puzzleState.stateCount());
+        for (long rank = 0; rank < puzzleState.stateCount(); rank++) {
+            assertEquals(rank, puzzleState.unrank(rank).rank());
+        }
+    }
+
+    @Test
+    void distance() {
+        PuzzleState puzzleState = new PuzzleState();
+        int expected = new BreadthFirstSearch<TwoPhaseMove<Position>>().solve(puzzleState.clone())
+                .orElseThrow()
+                .getDepth();
+        var database = DistanceDatabase.generate(puzzleState);
+        assertEquals(expected, database.distance(puzzleState).orElseThrow());
+        assertEquals(0, database.distance(puzzleState.goalStates().get(0)).orElseThrow());
+
+        var solution = database.solve(puzzleState).orElseThrow();
+        assertEquals(expected, solution.getDepth());
+        assertTrue(solution.getState().isSolved());
+    }
+
+    @Test
+    void writeAndOpen(@TempDir Path directory) throws IOException {
+        PuzzleState puzzleState = new PuzzleState();
+        var path = directory.resolve("puzzle.db");
+        var generated = DistanceDatabase.generate(puzzleState);
+        generated.write(path);
+        var opened = DistanceDatabase.open(path);
+        assertTrue(opened.covers(puzzleState));
+        assertEquals(generated.distance(puzzleState), opened.distance(puzzleState));
+        assertEquals(generated.bestMove(puzzleState), opened.bestMove(puzzleState));
+    }
+}
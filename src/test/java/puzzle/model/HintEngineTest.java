@@ -0,0 +1,73 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HintEngineTest {
+
+    @Test
+    void followHints() throws Exception {
+        var state = new PuzzleState();
+        var database = DistanceDatabase.generate(state);
+        try (var engine = new HintEngine(new SolveConnector(database, new SolutionCache(state.spec(), 1000)))) {
+            int distance = database.distance(state).orElseThrow();
+            var move = engine.requestHint(state).get(10, TimeUnit.SECONDS).orElseThrow();
+            while (true) {
+                assertTrue(state.isLegalMove(move));
+                state.makeMove(move);
+                assertEquals(--distance, database.distance(state).orElseThrow());
+                var next = engine.requestHint(state);
+                assertTrue(next.isDone());
+                if (state.isSolved()) {
+                    assertTrue(next.get().isEmpty());
+                    break;
+                }
+                move = next.get().orElseThrow();
+            }
+            assertEquals(0, distance);
+        }
+    }
+
+    @Test
+    void newRequestCancelsPendingOne() throws Exception {
+        var state = new PuzzleState();
+        try (var engine = new HintEngine(new SolveConnector(null, null))) {
+            var stale = engine.requestHint(state);
+            var other = state.clone();
+            other.makeMove(new TwoPhaseMove<>(new Position(1, 0), new Position(1, 1)));
+            var current = engine.requestHint(other);
+            assertTrue(stale.isDone());
+            assertTrue(current.get(10, TimeUnit.SECONDS).isPresent());
+        }
+    }
+
+    @Test
+    void requestSolution() throws Exception {
+        var state = new PuzzleState();
+        try (var engine = new HintEngine(new SolveConnector(null, null))) {
+            var moves = engine.requestSolution(state).get(10, TimeUnit.SECONDS).orElseThrow();
+            var later = state.clone();
+            later.makeMove(moves.get(0));
+            var rest = engine.requestSolution(later);
+            assertTrue(rest.isDone());
+            assertEquals(moves.subList(1, moves.size()), rest.get().orElseThrow());
+            for (var move : moves) {
+                state.makeMove(move);
+            }
+            assertTrue(state.isSolved());
+            assertTrue(engine.requestSolution(state).get().orElseThrow().isEmpty());
+        }
+    }
+
+    @Test
+    void defaultConnectorIsCreatedInTheBackground() throws Exception {
+        try (var engine = new HintEngine()) {
+            var move = engine.requestHint(new PuzzleState()).get(10, TimeUnit.SECONDS).orElseThrow();
+            assertTrue(new PuzzleState().isLegalMove(move));
+        }
+    }
+}
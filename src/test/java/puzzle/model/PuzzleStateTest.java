@@ -1,79 +1,91 @@
 package puzzle.model;
 
 import org.junit.jupiter.api.Test;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class PuzzleStateTest {
 
+    private static TwoPhaseMove<Position> move(String move) {
+        String[] coordinates = move.split("-");
+        String[] from = coordinates[0].split(",");
+        String[] to = coordinates[1].split(",");
+        return new TwoPhaseMove<>(new Position(Integer.parseInt(from[0]), Integer.parseInt(from[1])),
+                new Position(Integer.parseInt(to[0]), Integer.parseInt(to[1])));
+    }
+
 
     @Test
     void isSolved() {
         PuzzleState puzzleState = new PuzzleState();
         assertFalse(puzzleState.isSolved());
 
-        puzzleState.makeMove("1,4-1,3");
-        puzzleState.makeMove("1,3-1,2");
-        puzzleState.makeMove("1,2-0,2");
-        puzzleState.makeMove("1,0-1,1");
-        puzzleState.makeMove("1,1-1,2");
-        puzzleState.makeMove("1,2-1,3");
-        puzzleState.makeMove("1,3-1,4");
-        puzzleState.makeMove("0,0-1,0");
-        puzzleState.makeMove("1,0-1,1");
-        puzzleState.makeMove("1,1-1,2");
-        puzzleState.makeMove("1,2-1,3");
-        puzzleState.makeMove("0,2-1,2");
-        puzzleState.makeMove("1,2-1,1");
-        puzzleState.makeMove("1,1-1,0");
-        puzzleState.makeMove("1,0-0,0");
-        puzzleState.makeMove("1,3-1,2");
-        puzzleState.makeMove("1,2-1,1");
-        puzzleState.makeMove("1,1-1,0");
-        puzzleState.makeMove("1,4-1,3");
-        puzzleState.makeMove("1,3-1,2");
-        puzzleState.makeMove("1,2-1,1");
-        puzzleState.makeMove("0,4-1,4");
-        puzzleState.makeMove("1,4-1,3");
-        puzzleState.makeMove("1,3-1,2");
-        puzzleState.makeMove("1,2-0,2");
-        puzzleState.makeMove("1,1-1,2");
-        puzzleState.makeMove("1,2-1,3");
-        puzzleState.makeMove("1,3-1,4");
-        puzzleState.makeMove("1,4-0,4");
-        puzzleState.makeMove("1,0-1,1");
-        puzzleState.makeMove("1,1-1,2");
-        puzzleState.makeMove("1,2-1,3");
-        puzzleState.makeMove("1,3-1,4");
-        puzzleState.makeMove("2,0-1,0");
-        puzzleState.makeMove("1,0-1,1");
-        puzzleState.makeMove("1,1-1,2");
-        puzzleState.makeMove("1,2-1,3");
-        puzzleState.makeMove("0,2-1,2");
-        puzzleState.makeMove("1,2-1,1");
-        puzzleState.makeMove("1,1-1,0");
-        puzzleState.makeMove("1,0-2,0");
-        puzzleState.makeMove("1,3-1,2");
-        puzzleState.makeMove("1,2-1,1");
-        puzzleState.makeMove("1,1-1,0");
-        puzzleState.makeMove("1,4-1,3");
-        puzzleState.makeMove("1,3-1,2");
-        puzzleState.makeMove("1,2-1,1");
-        puzzleState.makeMove("2,4-1,4");
-        puzzleState.makeMove("1,4-1,3");
-        puzzleState.makeMove("1,3-1,2");
-        puzzleState.makeMove("1,2-0,2");
-        puzzleState.makeMove("1,1-1,2");
-        puzzleState.makeMove("1,2-1,3");
-        puzzleState.makeMove("1,3-1,4");
-        puzzleState.makeMove("1,4-2,4");
-        puzzleState.makeMove("1,0-1,1");
-        puzzleState.makeMove("1,1-1,2");
-        puzzleState.makeMove("1,2-1,3");
-        puzzleState.makeMove("1,3-1,4");
-        puzzleState.makeMove("0,2-1,2");
-        puzzleState.makeMove("1,2-1,1");
-        puzzleState.makeMove("1,1-1,0");
+        puzzleState.makeMove(move("1,4-1,3"));
+        puzzleState.makeMove(move("1,3-1,2"));
+        puzzleState.makeMove(move("1,2-0,2"));
+        puzzleState.makeMove(move("1,0-1,1"));
+        puzzleState.makeMove(move("1,1-1,2"));
+        puzzleState.makeMove(move("1,2-1,3"));
+        puzzleState.makeMove(move("1,3-1,4"));
+        puzzleState.makeMove(move("0,0-1,0"));
+        puzzleState.makeMove(move("1,0-1,1"));
+        puzzleState.makeMove(move("1,1-1,2"));
+        puzzleState.makeMove(move("1,2-1,3"));
+        puzzleState.makeMove(move("0,2-1,2"));
+        puzzleState.makeMove(move("1,2-1,1"));
+        puzzleState.makeMove(move("1,1-1,0"));
+        puzzleState.makeMove(move("1,0-0,0"));
+        puzzleState.makeMove(move("1,3-1,2"));
+        puzzleState.makeMove(move("1,2-1,1"));
+        puzzleState.makeMove(move("1,1-1,0"));
+        puzzleState.makeMove(move("1,4-1,3"));
+        puzzleState.makeMove(move("1,3-1,2"));
+        puzzleState.makeMove(move("1,2-1,1"));
+        puzzleState.makeMove(move("0,4-1,4"));
+        puzzleState.makeMove(move("1,4-1,3"));
+        puzzleState.makeMove(move("1,3-1,2"));
+        puzzleState.makeMove(move("1,2-0,2"));
+        puzzleState.makeMove(move("1,1-1,2"));
+        puzzleState.makeMove(move("1,2-1,3"));
+        puzzleState.makeMove(move("1,3-1,4"));
+        puzzleState.makeMove(move("1,4-0,4"));
+        puzzleState.makeMove(move("1,0-1,1"));
+        puzzleState.makeMove(move("1,1-1,2"));
+        puzzleState.makeMove(move("1,2-1,3"));
+        puzzleState.makeMove(move("1,3-1,4"));
+        puzzleState.makeMove(move("2,0-1,0"));
+        puzzleState.makeMove(move("1,0-1,1"));
+        puzzleState.makeMove(move("1,1-1,2"));
+        puzzleState.makeMove(move("1,2-1,3"));
+        puzzleState.makeMove(move("0,2-1,2"));
+        puzzleState.makeMove(move("1,2-1,1"));
+        puzzleState.makeMove(move("1,1-1,0"));
+        puzzleState.makeMove(move("1,0-2,0"));
+        puzzleState.makeMove(move("1,3-1,2"));
+        puzzleState.makeMove(move("1,2-1,1"));
+        puzzleState.makeMove(move("1,1-1,0"));
+        puzzleState.makeMove(move("1,4-1,3"));
+        puzzleState.makeMove(move("1,3-1,2"));
+        puzzleState.makeMove(move("1,2-1,1"));
+        puzzleState.makeMove(move("2,4-1,4"));
+        puzzleState.makeMove(move("1,4-1,3"));
+        puzzleState.makeMove(move("1,3-1,2"));
+        puzzleState.makeMove(move("1,2-0,2"));
+        puzzleState.makeMove(move("1,1-1,2"));
+        puzzleState.makeMove(move("1,2-1,3"));
+        puzzleState.makeMove(move("1,3-1,4"));
+        puzzleState.makeMove(move("1,4-2,4"));
+        puzzleState.makeMove(move("1,0-1,1"));
+        puzzleState.makeMove(move("1,1-1,2"));
+        puzzleState.makeMove(move("1,2-1,3"));
+        puzzleState.makeMove(move("1,3-1,4"));
+        puzzleState.makeMove(move("0,2-1,2"));
+        puzzleState.makeMove(move("1,2-1,1"));
+        puzzleState.makeMove(move("1,1-1,0"));
 
 
 
@@ -85,15 +97,15 @@ public class PuzzleStateTest {
     @Test
     void isLegalMove() {
         PuzzleState puzzleState = new PuzzleState();
-        assertTrue(puzzleState.isLegalMove("1,0-1,1")); // Legal move
-        assertFalse(puzzleState.isLegalMove("1,1-3,2")); // Illegal move
+        assertTrue(puzzleState.isLegalMove(move("1,0-1,1"))); // Legal move
+        assertFalse(puzzleState.isLegalMove(move("1,1-3,2"))); // Illegal move
     }
 
     @Test
     void makeMove() {
         PuzzleState puzzleState = new PuzzleState();
         Square initialSquare = puzzleState.getSquare(new Position(1, 4));
-        puzzleState.makeMove("1,4-1,3");
+        puzzleState.makeMove(move("1,4-1,3"));
         Square movedSquare = puzzleState.getSquare(new Position(1, 3));
         assertEquals(initialSquare, movedSquare);
         assertEquals(Square.NONE, puzzleState.getSquare(new Position(1, 4)));
@@ -102,7 +114,14 @@ public class PuzzleStateTest {
     @Test
     void getLegalMoves() {
         PuzzleState puzzleState = new PuzzleState();
-        puzzleState.makeMove("0,1-1,1");
+        puzzleState.makeMove(move("0,1-1,1"));
+        assertEquals(Set.of(move("1,0-1,1"), move("1,4-1,3")), puzzleState.getLegalMoves());
+
+        var legalMoves = puzzleState.getLegalMoves();
+        assertTrue(legalMoves.contains(move("1,0-1,1")));
+        assertTrue(legalMoves.remove(move("1,0-1,1")));
+        assertFalse(legalMoves.contains(move("1,0-1,1")));
+        assertEquals(Set.of(move("1,4-1,3")), legalMoves);
     }
 
     @Test
@@ -111,4 +130,90 @@ public class PuzzleStateTest {
         assertTrue(puzzleState.isLegalToMoveFrom(new Position(1, 0)));
         assertFalse(puzzleState.isLegalToMoveFrom(new Position(0, 0)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void equalsAndHashCode() {
+        PuzzleState first = new PuzzleState();
+        PuzzleState second = new PuzzleState();
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        first.makeMove(move("1,0-1,1"));
+        first.makeMove(move("1,4-1,3"));
+        second.makeMove(move("1,4-1,3"));
+        assertNotEquals(first, second);
+        second.makeMove(move("1,0-1,1"));
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        first.makeMove(move("1,1-1,0"));
+        assertEquals(first, first.clone());
+        assertEquals(first.hashCode(), first.clone().hashCode());
+    }
+
+    @Test
+    void hashCodeMatchesBoard() {
+        PuzzleState puzzleState = new PuzzleState();
+        puzzleState.makeMove(move("1,0-1,1"));
+        puzzleState.makeMove(move("1,1-1,2"));
+
+        Square[][] board = new Square[3][5];
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 5; j++) {
+                board[i][j] = puzzleState.getSquare(new Position(i, j));
+            }
+        }
+        PuzzleState rebuilt = new PuzzleState(board);
+        assertEquals(puzzleState, rebuilt);
+        assertEquals(puzzleState.hashCode(), rebuilt.hashCode());
+    }
+
+    @Test
+    void undoMove() {
+        PuzzleState puzzleState = new PuzzleState();
+        PuzzleState initial = puzzleState.clone();
+        int hashCode = puzzleState.hashCode();
+        puzzleState.makeMove(move("1,0-1,1"));
+        puzzleState.makeMove(move("1,1-1,2"));
+        puzzleState.undoMove(move("1,1-1,2"));
+        puzzleState.undoMove(move("1,0-1,1"));
+        assertEquals(initial, puzzleState);
+        assertEquals(hashCode, puzzleState.hashCode());
+    }
+
+    @Test
+    void snapshot() {
+        PuzzleState puzzleState = new PuzzleState();
+        var before = puzzleState.snapshot();
+        puzzleState.makeMove(move("1,0-1,1"));
+        var after = puzzleState.snapshot();
+        assertEquals(puzzleState, after.toState());
+        assertNotSame(after.toState(), after.toState());
+        assertEquals(Square.RED, before.getSquare(new Position(1, 0)));
+        assertEquals(List.of(new Position(1, 0), new Position(1, 1)), before.changedPositions(after));
+        assertTrue(after.changedPositions(puzzleState.snapshot()).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new PuzzleSnapshot(puzzleState.spec(), 0L));
+    }
+
+    @Test
+    void canonicalCodeAfter() {
+        PuzzleState puzzleState = new PuzzleState();
+        puzzleState.makeMove(move("1,0-1,1"));
+        for (var legalMove : puzzleState.getLegalMoves()) {
+            var child = puzzleState.clone();
+            child.makeMove(legalMove);
+            assertEquals(child.canonicalCode(), puzzleState.canonicalCodeAfter(legalMove));
+        }
+    }
+
+    @Test
+    void encodeAfter() {
+        PuzzleState puzzleState = new PuzzleState();
+        puzzleState.makeMove(move("1,0-1,1"));
+        for (var legalMove : puzzleState.getLegalMoves()) {
+            var child = puzzleState.clone();
+            child.makeMove(legalMove);
+            assertEquals(child.encode(), puzzleState.encodeAfter(legalMove));
+        }
+    }
+}
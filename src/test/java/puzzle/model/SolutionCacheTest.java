@@ -0,0 +1,85 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.solver.Node;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolutionCacheTest {
+
+    private static List<TwoPhaseMove<Position>> solution(PuzzleState state) {
+        var moves = new ArrayList<TwoPhaseMove<Position>>();
+        Node<TwoPhaseMove<Position>> node = new SolveConnector(null).solvePuzzle(state).orElseThrow();
+        for (; node.getParent().isPresent(); node = node.getParent().get()) {
+            moves.add(node.getMove().orElseThrow());
+        }
+        Collections.reverse(moves);
+        return moves;
+    }
+
+    @Test
+    void laterStatesOnPath() {
+        var start = new PuzzleState();
+        var moves = solution(start);
+        var cache = new SolutionCache(start.spec(), 1000);
+        assertTrue(cache.get(start).isEmpty());
+        cache.put(start, moves);
+        assertEquals(moves, cache.get(start).orElseThrow());
+
+        var later = start.clone();
+        for (var move : moves.subList(0, 10)) {
+            later.makeMove(move);
+        }
+        assertEquals(moves.subList(10, moves.size()), cache.get(later).orElseThrow());
+        assertEquals(new SolutionCache.Metrics(2, 0, 1, 0, moves.size() + 1, 0), cache.metrics());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        var start = new PuzzleState();
+        var moves = solution(start);
+        var cache = new SolutionCache(start.spec(), 10);
+        cache.put(start, moves);
+        assertEquals(10, cache.metrics().memorySize());
+        assertEquals(moves.size() + 1 - 10, cache.metrics().evictions());
+        assertTrue(cache.get(start).isEmpty());
+        assertTrue(cache.get(start.goalStates().get(0)).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void diskTierSurvivesReopening(@TempDir Path directory) throws IOException {
+        var start = new PuzzleState();
+        var moves = solution(start);
+        var path = directory.resolve("solutions.cache");
+        try (var cache = SolutionCache.open(start.spec(), 10, path)) {
+            cache.put(start, moves);
+        }
+        try (var cache = SolutionCache.open(start.spec(), 10, path)) {
+            assertEquals(moves.size() + 1, cache.metrics().diskSize());
+            assertEquals(moves, cache.get(start).orElseThrow());
+            assertEquals(1, cache.metrics().diskHits());
+        }
+        var other = BoardSpec.parse("R . B\n\nB . R");
+        assertThrows(IOException.class, () -> SolutionCache.open(other, 10, path));
+    }
+
+    @Test
+    void solveConnectorUsesCache() {
+        var start = new PuzzleState();
+        var cache = new SolutionCache(start.spec(), 1000);
+        var connector = new SolveConnector(null, cache);
+        int length = connector.solvePuzzle(start).orElseThrow().getDepth();
+        var solution = connector.solvePuzzle(start).orElseThrow();
+        assertEquals(length, solution.getDepth());
+        assertTrue(solution.getState().isSolved());
+        assertEquals(1, cache.metrics().memoryHits());
+    }
+}
@@ -0,0 +1,89 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolutionWriterTest {
+
+    private static Solution solve(PuzzleState state) {
+        var node = new SolveConnector(null).solvePuzzle(state).orElseThrow();
+        var solution = Solution.of(node);
+        assertEquals(node.getDepth() + 1, node.getPath().size());
+        assertEquals(node.getDepth(), solution.length());
+        return solution;
+    }
+
+    @Test
+    void binaryRoundTrip() throws IOException {
+        var start = new PuzzleState();
+        var later = start.clone();
+        later.makeMove(new TwoPhaseMove<>(new Position(1, 0), new Position(1, 1)));
+        var solutions = List.of(solve(start), solve(later));
+
+        var bytes = new ByteArrayOutputStream();
+        try (var writer = SolutionWriter.binary(bytes, start.spec())) {
+            for (var solution : solutions) {
+                writer.write(solution);
+            }
+        }
+        int header = 3 * Integer.BYTES + start.spec().toString().getBytes(StandardCharsets.UTF_8).length;
+        int records = solutions.stream().mapToInt(s -> Long.BYTES + Integer.BYTES + s.length()).sum();
+        assertEquals(header + records, bytes.size());
+
+        try (var reader = SolutionReader.open(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(start.spec(), reader.spec());
+            var read = reader.solutions().toList();
+            assertEquals(solutions, read);
+            assertTrue(read.get(1).replay().getState().isSolved());
+        }
+    }
+
+    @Test
+    void binaryRejectsMovesOffTheBoard() throws IOException {
+        var start = new PuzzleState();
+        var solution = new Solution(start.snapshot(), List.of(
+                new TwoPhaseMove<>(new Position(1, 0), new Position(1, 1)),
+                new TwoPhaseMove<>(new Position(1, 0), new Position(3, 0))));
+        var bytes = new ByteArrayOutputStream();
+        try (var writer = SolutionWriter.binary(bytes, start.spec())) {
+            writer.flush();
+            int header = bytes.size();
+            assertThrows(IllegalArgumentException.class, () -> writer.write(solution));
+            writer.flush();
+            assertEquals(header, bytes.size());
+        }
+    }
+
+    @Test
+    void textFormats() throws IOException {
+        var solution = new Solution(new PuzzleState().snapshot(), List.of(
+                new TwoPhaseMove<>(new Position(1, 0), new Position(1, 1)),
+                new TwoPhaseMove<>(new Position(1, 4), new Position(1, 3))));
+        var text = new ByteArrayOutputStream();
+        try (var writer = SolutionWriter.text(text)) {
+            writer.write(solution);
+        }
+        assertEquals("2: 1,0-1,1 1,4-1,3" + System.lineSeparator(), text.toString(StandardCharsets.UTF_8));
+
+        var json = new ByteArrayOutputStream();
+        try (var writer = SolutionWriter.jsonLines(json)) {
+            writer.write(solution);
+        }
+        assertEquals("{\"start\":" + solution.start().code() + ",\"length\":2,\"moves\":[[1,0,1,1],[1,4,1,3]]}\n",
+                json.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void readRejectsOtherStreams() {
+        var bytes = "not a solution file".getBytes(StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> SolutionReader.open(new ByteArrayInputStream(bytes)));
+    }
+}
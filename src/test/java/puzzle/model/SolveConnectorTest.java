@@ -0,0 +1,86 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.solver.Node;
+import puzzle.solver.SolveRequest;
+import puzzle.solver.SolveResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolveConnectorTest {
+
+    /**
+     * A board whose goal regions hold {@code C(16, 4)^2}, i.e., more than three million, goal
+     * states.
+     */
+    private static final BoardSpec MANY_GOALS = BoardSpec.parse("""
+            R R B B . . . .
+            R R B B . . . .
+            . . . . . . . .
+            . . . . . . . .
+
+            R R R R R R R R
+            R R R R R R R R
+            B B B B B B B B
+            B B B B B B B B
+            """);
+
+    @Test
+    void goalStateIteratorMatchesGoalStates() {
+        var state = new PuzzleState(BoardSpec.parse("R . B .\n\nB B R R"));
+        var goals = new ArrayList<PuzzleState>();
+        state.goalStateIterator().forEachRemaining(goals::add);
+        assertEquals(state.goalStates(), goals);
+        assertEquals(4, goals.size());
+    }
+
+    @Test
+    void goalStatesCountAgainstTheBudget() {
+        var state = new PuzzleState(MANY_GOALS);
+        var connector = new SolveConnector(null);
+        long start = System.nanoTime();
+        var result = connector.solvePuzzle(state, SolveRequest.unlimited().withMaxMemoryBytes(1 << 20));
+        assertEquals(SolveResult.Outcome.MEMORY_LIMIT_REACHED, result.outcome());
+        assertEquals(0, result.expanded());
+        assertTrue(result.estimatedMemoryBytes() <= (1 << 20) + 64);
+
+        var request = SolveRequest.unlimited();
+        request.cancellationToken().cancel();
+        assertEquals(SolveResult.Outcome.CANCELLED, connector.solvePuzzle(state, request).outcome());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(10)) < 0);
+    }
+
+    @Test
+    void printSolutionFromTheStartToTheGoal() {
+        var start = new PuzzleState();
+        var first = new TwoPhaseMove<>(new Position(1, 0), new Position(1, 1));
+        var second = new TwoPhaseMove<>(new Position(1, 4), new Position(1, 3));
+        var root = new Node<>(start);
+        var middleState = start.clone();
+        middleState.makeMove(first);
+        var middle = new Node<>(middleState, root, first);
+        var endState = middleState.clone();
+        endState.makeMove(second);
+        var end = new Node<>(endState, middle, second);
+
+        var bytes = new ByteArrayOutputStream();
+        var out = System.out;
+        System.setOut(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        try {
+            new SolveConnector(null).printSolution(Optional.of(end));
+        } finally {
+            System.setOut(out);
+        }
+        assertEquals(List.of("Solution:", " -> " + start, first + " -> " + middleState, endState.toString()),
+                bytes.toString(StandardCharsets.UTF_8).lines().toList());
+    }
+}
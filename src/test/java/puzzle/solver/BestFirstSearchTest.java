@@ -0,0 +1,76 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.model.Position;
+import puzzle.model.PuzzleState;
+import puzzle.model.StoneMatchingHeuristic;
+
+import java.time.Instant;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BestFirstSearchTest {
+
+    private static final int OPTIMAL_LENGTH = new BreadthFirstSearch<TwoPhaseMove<Position>>()
+            .solve(new PuzzleState())
+            .orElseThrow()
+            .getDepth();
+
+    @Test
+    void heuristicIsAdmissible() {
+        var start = new PuzzleState();
+        var heuristic = new StoneMatchingHeuristic(start);
+        assertTrue(heuristic.estimate(start) <= OPTIMAL_LENGTH);
+        assertEquals(0, heuristic.estimate(start.goalStates().get(0)));
+    }
+
+    @Test
+    void solve() {
+        var start = new PuzzleState();
+        var solution = new BestFirstSearch<TwoPhaseMove<Position>>(new StoneMatchingHeuristic(start))
+                .solve(start)
+                .orElseThrow();
+        assertTrue(solution.getState().isSolved());
+        assertEquals(OPTIMAL_LENGTH, solution.getDepth());
+    }
+
+    @Test
+    void solveInParallel() {
+        var start = new PuzzleState();
+        var heuristic = new StoneMatchingHeuristic(start);
+        for (int parallelism : new int[] {1, 4}) {
+            var solution = new ParallelBestFirstSearch<TwoPhaseMove<Position>>(heuristic, parallelism)
+                    .solve(start)
+                    .orElseThrow();
+            assertTrue(solution.getState().isSolved());
+            assertEquals(OPTIMAL_LENGTH, solution.getDepth());
+            assertEquals(start, solution.getPath().get(0).getState());
+        }
+    }
+
+    @Test
+    void solveWeighted() {
+        var start = new PuzzleState();
+        var solution = new BestFirstSearch<TwoPhaseMove<Position>>(new StoneMatchingHeuristic(start), 2.0)
+                .solve(start)
+                .orElseThrow();
+        assertTrue(solution.getState().isSolved());
+        assertTrue(solution.getDepth() <= 2 * OPTIMAL_LENGTH);
+    }
+
+    @Test
+    void solveAnytime() {
+        var start = new PuzzleState();
+        var lengths = new ArrayList<Integer>();
+        var solution = new BestFirstSearch<TwoPhaseMove<Position>>(new StoneMatchingHeuristic(start), 3.0)
+                .solveAnytime(start, Instant.now().plusSeconds(60), node -> lengths.add(node.getDepth()))
+                .orElseThrow();
+        assertEquals(OPTIMAL_LENGTH, solution.getDepth());
+        assertFalse(lengths.isEmpty());
+        for (int i = 1; i < lengths.size(); i++) {
+            assertTrue(lengths.get(i) < lengths.get(i - 1));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.model.Position;
+import puzzle.model.PuzzleState;
+
+import java.util.ArrayDeque;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BidirectionalBreadthFirstSearchTest {
+
+    private static int length(Node<?> node) {
+        int length = 0;
+        for (var current = node; current.getParent().isPresent(); current = current.getParent().get()) {
+            length++;
+        }
+        return length;
+    }
+
+    @Test
+    void solve() {
+        var start = new PuzzleState();
+        var expected = new BreadthFirstSearch<TwoPhaseMove<Position>>().solve(start.clone()).orElseThrow();
+        var solution = new BidirectionalBreadthFirstSearch<TwoPhaseMove<Position>>()
+                .solve(start, start.goalStates())
+                .orElseThrow();
+        assertTrue(solution.getState().isSolved());
+        assertEquals(length(expected), length(solution));
+
+        var replay = new PuzzleState();
+        var moves = new ArrayDeque<TwoPhaseMove<Position>>();
+        for (var node = solution; node.getParent().isPresent(); node = node.getParent().get()) {
+            moves.push(node.getMove().orElseThrow());
+        }
+        for (var move : moves) {
+            assertTrue(replay.isLegalMove(move));
+            replay.makeMove(move);
+        }
+        assertTrue(replay.isSolved());
+    }
+
+    @Test
+    void solveMirrored() {
+        var start = new PuzzleState();
+        var mirror = start.spec().startToGoalSymmetry().orElseThrow();
+        int expected = new BreadthFirstSearch<TwoPhaseMove<Position>>().solve(start.clone()).orElseThrow().getDepth();
+        var solution = new BidirectionalBreadthFirstSearch<TwoPhaseMove<Position>>()
+                .solveMirrored(start, state -> ((PuzzleState) state).transform(mirror))
+                .orElseThrow();
+        assertTrue(solution.getState().isSolved());
+        assertEquals(expected, length(solution));
+
+        var replay = new PuzzleState();
+        var moves = new ArrayDeque<TwoPhaseMove<Position>>();
+        for (var node = solution; node.getParent().isPresent(); node = node.getParent().get()) {
+            moves.push(node.getMove().orElseThrow());
+        }
+        for (var move : moves) {
+            assertTrue(replay.isLegalMove(move));
+            replay.makeMove(move);
+        }
+        assertTrue(replay.isSolved());
+    }
+
+    @Test
+    void solveSolvedState() {
+        var goal = new PuzzleState().goalStates().get(0);
+        var solution = new BidirectionalBreadthFirstSearch<TwoPhaseMove<Position>>()
+                .solve(goal, goal.goalStates())
+                .orElseThrow();
+        assertEquals(0, length(solution));
+    }
+}
@@ -0,0 +1,271 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.EncodableState;
+import puzzle.State;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.model.Position;
+import puzzle.model.PuzzleState;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BreadthFirstSearchTest {
+
+    /**
+     * The number of ways to place 3 red and 3 blue stones on the 10 free cells of the board.
+     */
+    private static final int STATE_COUNT = 120 * 35;
+
+    /**
+     * A state that is never solved, and that is not encodable, thus it is
+     * deduplicated by {@code equals} and {@code hashCode}.
+     */
+    private static class UnsolvableState implements State<TwoPhaseMove<Position>> {
+
+        private final PuzzleState delegate;
+        private final Set<PuzzleState> expanded;
+        private final int[] expansions;
+
+        UnsolvableState(PuzzleState delegate, Set<PuzzleState> expanded, int[] expansions) {
+            this.delegate = delegate;
+            this.expanded = expanded;
+            this.expansions = expansions;
+        }
+
+        @Override
+        public boolean isSolved() {
+            expansions[0]++;
+            expanded.add(delegate);
+            return false;
+        }
+
+        @Override
+        public boolean isLegalMove(TwoPhaseMove<Position> move) {
+            return delegate.isLegalMove(move);
+        }
+
+        @Override
+        public void makeMove(TwoPhaseMove<Position> move) {
+            delegate.makeMove(move);
+        }
+
+        @Override
+        public Set<TwoPhaseMove<Position>> getLegalMoves() {
+            return delegate.getLegalMoves();
+        }
+
+        @Override
+        public UnsolvableState clone() {
+            return new UnsolvableState(delegate.clone(), expanded, expansions);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof UnsolvableState other && delegate.equals(other.delegate);
+        }
+
+        @Override
+        public int hashCode() {
+            return delegate.hashCode();
+        }
+    }
+
+    /**
+     * An encodable state that counts the copies made of it.
+     */
+    private static class CountingState implements EncodableState<TwoPhaseMove<Position>> {
+
+        private final PuzzleState delegate;
+        private final int[] clones;
+
+        CountingState(PuzzleState delegate, int[] clones) {
+            this.delegate = delegate;
+            this.clones = clones;
+        }
+
+        @Override
+        public boolean isSolved() {
+            return delegate.isSolved();
+        }
+
+        @Override
+        public boolean isLegalMove(TwoPhaseMove<Position> move) {
+            return delegate.isLegalMove(move);
+        }
+
+        @Override
+        public void makeMove(TwoPhaseMove<Position> move) {
+            delegate.makeMove(move);
+        }
+
+        @Override
+        public Set<TwoPhaseMove<Position>> getLegalMoves() {
+            return delegate.getLegalMoves();
+        }
+
+        @Override
+        public long encode() {
+            return delegate.encode();
+        }
+
+        @Override
+        public long encodeAfter(TwoPhaseMove<Position> move) {
+            return delegate.encodeAfter(move);
+        }
+
+        @Override
+        public long canonicalCode() {
+            return delegate.canonicalCode();
+        }
+
+        @Override
+        public long canonicalCodeAfter(TwoPhaseMove<Position> move) {
+            return delegate.canonicalCodeAfter(move);
+        }
+
+        @Override
+        public CountingState clone() {
+            clones[0]++;
+            return new CountingState(delegate.clone(), clones);
+        }
+    }
+
+    @Test
+    void solve() {
+        var solution = new BreadthFirstSearch<TwoPhaseMove<Position>>().solve(new PuzzleState());
+        assertTrue(solution.isPresent());
+        assertTrue(solution.get().getState().isSolved());
+        int length = 0;
+        for (var node = solution.get(); node.getParent().isPresent(); node = node.getParent().get()) {
+            length++;
+        }
+        assertTrue(length <= 62);
+    }
+
+    @Test
+    void solveVisitsEachStateOnce() {
+        var expanded = new HashSet<PuzzleState>();
+        var expansions = new int[1];
+        var solution = new BreadthFirstSearch<TwoPhaseMove<Position>>()
+                .solve(new UnsolvableState(new PuzzleState(), expanded, expansions));
+        assertTrue(solution.isEmpty());
+        assertEquals(expanded.size(), expansions[0]);
+        assertTrue(expansions[0] <= STATE_COUNT);
+    }
+
+    @Test
+    void nodeEquality() {
+        var node = new Node<>(new PuzzleState());
+        assertEquals(node, node);
+        assertEquals(node, new Node<>(new PuzzleState()));
+    }
+
+    @Test
+    void solveInParallel() {
+        int expected = new BreadthFirstSearch<TwoPhaseMove<Position>>().solve(new PuzzleState()).orElseThrow().getDepth();
+        for (int threads : new int[] {1, 2, 4}) {
+            var solution = new ParallelBreadthFirstSearch<TwoPhaseMove<Position>>(threads)
+                    .solve(new PuzzleState())
+                    .orElseThrow();
+            assertTrue(solution.getState().isSolved());
+            assertEquals(expected, solution.getDepth());
+        }
+    }
+
+    @Test
+    void solveWithStatistics() {
+        var statistics = new SearchStatistics();
+        var solution = new BreadthFirstSearch<TwoPhaseMove<Position>>(statistics).solve(new PuzzleState()).orElseThrow();
+        assertEquals(solution.getDepth(), statistics.getMaxDepth());
+        assertEquals(solution.getDepth() + 1, statistics.getLayerTimes().size());
+        assertTrue(statistics.getExpanded() > 0 && statistics.getExpanded() < STATE_COUNT);
+        assertTrue(statistics.getDuplicates() > 0 && statistics.getDuplicates() < statistics.getGenerated());
+        assertTrue(statistics.getPeakFrontierSize() > 1);
+    }
+
+    @Test
+    void solveEmitsFlightRecorderEvents() throws IOException {
+        var file = Files.createTempFile("search", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable("puzzle.Search");
+            recording.enable("puzzle.SearchLayer");
+            recording.start();
+            var solution = new BreadthFirstSearch<TwoPhaseMove<Position>>().solve(new PuzzleState()).orElseThrow();
+            recording.stop();
+            recording.dump(file);
+            var events = RecordingFile.readAllEvents(file);
+            var search = events.stream()
+                    .filter(event -> event.getEventType().getName().equals("puzzle.Search"))
+                    .toList();
+            assertEquals(1, search.size());
+            assertEquals(solution.getDepth(), search.get(0).getInt("solutionLength"));
+            assertEquals(solution.getDepth() + 1, events.stream()
+                    .filter(event -> event.getEventType().getName().equals("puzzle.SearchLayer"))
+                    .count());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void solveWithinBudgets() {
+        var search = new BreadthFirstSearch<TwoPhaseMove<Position>>();
+        var solved = search.solve(new PuzzleState(), SolveRequest.unlimited());
+        assertEquals(SolveResult.Outcome.SOLVED, solved.outcome());
+        assertTrue(solved.solution().orElseThrow().getState().isSolved());
+        assertTrue(solved.expanded() > 0 && solved.stored() > solved.expanded());
+
+        var capped = search.solve(new PuzzleState(), SolveRequest.unlimited().withMaxExpansions(100));
+        assertEquals(SolveResult.Outcome.EXPANSION_LIMIT_REACHED, capped.outcome());
+        assertTrue(capped.solution().isEmpty());
+        assertEquals(100, capped.expanded());
+
+        var small = search.solve(new PuzzleState(), SolveRequest.unlimited().withMaxMemoryBytes(1 << 16));
+        assertEquals(SolveResult.Outcome.MEMORY_LIMIT_REACHED, small.outcome());
+        assertTrue(small.estimatedMemoryBytes() <= (1 << 16) + 128);
+
+        var late = search.solve(new PuzzleState(), SolveRequest.unlimited().withDeadline(Instant.EPOCH));
+        assertEquals(SolveResult.Outcome.DEADLINE_EXCEEDED, late.outcome());
+
+        var request = SolveRequest.unlimited();
+        request.cancellationToken().cancel();
+        assertEquals(SolveResult.Outcome.CANCELLED, search.solve(new PuzzleState(), request).outcome());
+
+        var unsolvable = search.solve(new UnsolvableState(new PuzzleState(), new HashSet<>(), new int[1]),
+                SolveRequest.unlimited());
+        assertEquals(SolveResult.Outcome.NO_SOLUTION, unsolvable.outcome());
+    }
+
+    @Test
+    void solveBidirectionallyWithinBudgets() {
+        var state = new PuzzleState();
+        var search = new BidirectionalBreadthFirstSearch<TwoPhaseMove<Position>>();
+        var solved = search.solve(state, state.goalStates(), SolveRequest.unlimited());
+        assertEquals(SolveResult.Outcome.SOLVED, solved.outcome());
+        assertEquals(new BreadthFirstSearch<TwoPhaseMove<Position>>().solve(state).orElseThrow().getDepth(),
+                solved.solution().orElseThrow().getDepth());
+        var capped = search.solve(state, state.goalStates(), SolveRequest.unlimited().withMaxExpansions(10));
+        assertEquals(SolveResult.Outcome.EXPANSION_LIMIT_REACHED, capped.outcome());
+        assertEquals(10, capped.expanded());
+    }
+
+    @Test
+    void solveWithinBudgetsClonesOnlyNewStates() {
+        var clones = new int[1];
+        var statistics = new SearchStatistics();
+        var result = new BreadthFirstSearch<TwoPhaseMove<Position>>(statistics)
+                .solve(new CountingState(new PuzzleState(), clones), SolveRequest.unlimited());
+        assertEquals(SolveResult.Outcome.SOLVED, result.outcome());
+        assertTrue(statistics.getDuplicates() > 0);
+        assertEquals(result.stored() - 1, clones[0]);
+    }
+}
@@ -0,0 +1,68 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.model.Position;
+import puzzle.model.PuzzleState;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExternalBreadthFirstSearchTest {
+
+    @Test
+    void codeRunRoundTrip(@TempDir Path directory) throws IOException {
+        long[] codes = {-1L, 5L, Long.MIN_VALUE, 0L, 5L, 1L << 40, Long.MAX_VALUE};
+        CodeRun.sortUnsigned(codes, 0, codes.length);
+        var path = directory.resolve("run");
+        try (var writer = new CodeRun.Writer(path, 16)) {
+            for (long code : codes) {
+                writer.add(code);
+            }
+            assertEquals(6, writer.count());
+        }
+        var read = new ArrayList<Long>();
+        try (var reader = new CodeRun.Reader(path, 16)) {
+            while (reader.hasNext()) {
+                read.add(reader.next());
+            }
+        }
+        assertEquals(List.of(0L, 5L, 1L << 40, Long.MAX_VALUE, Long.MIN_VALUE, -1L), read);
+    }
+
+    @Test
+    void solve(@TempDir Path directory) throws IOException {
+        var start = new PuzzleState();
+        var expected = new BreadthFirstSearch<TwoPhaseMove<Position>>().solve(start.clone()).orElseThrow();
+        var solution = new ExternalBreadthFirstSearch<TwoPhaseMove<Position>>(directory, 4096)
+                .solve(start)
+                .orElseThrow();
+        assertTrue(solution.getState().isSolved());
+        assertEquals(expected.getDepth(), solution.getDepth());
+        var replayed = start.clone();
+        for (var move : solution.getMoves()) {
+            assertTrue(replayed.isLegalMove(move));
+            replayed.makeMove(move);
+        }
+        assertEquals(solution.getState(), replayed);
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void layerSizes(@TempDir Path directory) {
+        var start = new PuzzleState();
+        var sizes = new ExternalBreadthFirstSearch<TwoPhaseMove<Position>>(directory, 4096).layerSizes(start);
+        var inMemory = new ExternalBreadthFirstSearch<TwoPhaseMove<Position>>(directory).layerSizes(start);
+        assertEquals(inMemory, sizes);
+        assertEquals(1L, sizes.get(0));
+        assertEquals(start.getLegalMoves().size(), sizes.get(1));
+    }
+}
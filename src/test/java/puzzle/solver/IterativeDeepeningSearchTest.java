@@ -0,0 +1,37 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.TwoPhaseMoveState.TwoPhaseMove;
+import puzzle.model.Position;
+import puzzle.model.PuzzleState;
+import puzzle.model.StoneMatchingHeuristic;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IterativeDeepeningSearchTest {
+
+    private static final int OPTIMAL_LENGTH = new BreadthFirstSearch<TwoPhaseMove<Position>>()
+            .solve(new PuzzleState())
+            .orElseThrow()
+            .getDepth();
+
+    @Test
+    void solve() {
+        var start = new PuzzleState();
+        var solution = new IterativeDeepeningSearch<TwoPhaseMove<Position>>(new StoneMatchingHeuristic(start))
+                .solve(start)
+                .orElseThrow();
+        assertTrue(solution.getState().isSolved());
+        assertEquals(OPTIMAL_LENGTH, solution.getDepth());
+        assertEquals(new PuzzleState(), start);
+    }
+
+    @Test
+    void solveWithoutHeuristic() {
+        var solution = new IterativeDeepeningSearch<TwoPhaseMove<Position>>()
+                .solve(new PuzzleState())
+                .orElseThrow();
+        assertTrue(solution.getState().isSolved());
+        assertEquals(OPTIMAL_LENGTH, solution.getDepth());
+    }
+}
@@ -0,0 +1,45 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongHashSetTest {
+
+    @Test
+    void add() {
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.add(42L));
+        assertFalse(set.add(42L));
+        assertTrue(set.add(0L));
+        assertFalse(set.add(0L));
+        assertTrue(set.add(-1L));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void contains() {
+        LongHashSet set = new LongHashSet(4);
+        assertFalse(set.contains(0L));
+        for (long i = 0; i < 100_000; i++) {
+            set.add(i * 31);
+        }
+        assertEquals(100_000, set.size());
+        for (long i = 0; i < 100_000; i++) {
+            assertTrue(set.contains(i * 31));
+        }
+        assertFalse(set.contains(-31L));
+        assertFalse(set.contains(7L));
+    }
+
+    @Test
+    void clear() {
+        LongHashSet set = new LongHashSet();
+        set.add(0L);
+        set.add(5L);
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0L));
+        assertFalse(set.contains(5L));
+    }
+}
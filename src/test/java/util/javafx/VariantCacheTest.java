@@ -0,0 +1,103 @@
+package util.javafx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VariantCacheTest {
+
+    private enum Piece {
+        KING, QUEEN, ROOK
+    }
+
+    /**
+     * Stands for an image, which fails to load if its location says so.
+     */
+    private record FakeImage(String url, int size) {
+
+        boolean isError() {
+            return url.startsWith("broken:");
+        }
+    }
+
+    private static final Map<Piece, String> URLS =
+            Map.of(Piece.KING, "king.png", Piece.QUEEN, "broken:queen.png");
+
+    private final List<FakeImage> loaded = new ArrayList<>();
+
+    private VariantCache<Piece, FakeImage> cache(long maxBytes) {
+        return new VariantCache<>(Piece.class, URLS, maxBytes, (url, size) -> {
+            var image = new FakeImage(url, size);
+            loaded.add(image);
+            return image;
+        }, FakeImage::isError);
+    }
+
+    @Test
+    void loadEachImageOnce() {
+        var cache = cache(1 << 20);
+        assertEquals(new FakeImage("king.png", 0), cache.get(Piece.KING).orElseThrow());
+        assertEquals(new FakeImage("king.png", 10), cache.get(Piece.KING, 10).orElseThrow());
+        assertSame(cache.get(Piece.KING).orElseThrow(), cache.get(Piece.KING).orElseThrow());
+        assertSame(cache.get(Piece.KING, 10).orElseThrow(), cache.get(Piece.KING, 10).orElseThrow());
+        assertEquals(2, loaded.size());
+        assertTrue(cache.get(Piece.ROOK).isEmpty());
+        assertTrue(cache.get(Piece.ROOK, 10).isEmpty());
+    }
+
+    @Test
+    void countOnlyTheVariants() {
+        var cache = cache(1 << 20);
+        cache.get(Piece.KING);
+        assertEquals(0, cache.getMemoryBytes());
+        cache.get(Piece.KING, 10);
+        cache.get(Piece.KING, 20);
+        cache.get(Piece.KING, 10);
+        assertEquals(4 * (10 * 10 + 20 * 20), cache.getMemoryBytes());
+    }
+
+    @Test
+    void evictTheLeastRecentlyUsedVariants() {
+        var cache = cache(4 * (10 * 10 + 20 * 20));
+        cache.get(Piece.KING, 10);
+        cache.get(Piece.KING, 20);
+        cache.get(Piece.KING, 10);
+        cache.get(Piece.KING, 5);
+        assertEquals(4 * (10 * 10 + 5 * 5), cache.getMemoryBytes());
+        assertEquals(3, loaded.size());
+        cache.get(Piece.KING, 10);
+        assertEquals(3, loaded.size());
+        cache.get(Piece.KING, 20);
+        assertEquals(4, loaded.size());
+        assertEquals(4 * (10 * 10 + 20 * 20), cache.getMemoryBytes());
+    }
+
+    @Test
+    void keepTheVariantMostRecentlyUsed() {
+        var cache = cache(1);
+        cache.get(Piece.KING, 10);
+        var image = cache.get(Piece.KING, 20).orElseThrow();
+        assertEquals(4 * 20 * 20, cache.getMemoryBytes());
+        assertSame(image, cache.get(Piece.KING, 20).orElseThrow());
+        assertEquals(2, loaded.size());
+    }
+
+    @Test
+    void forgetConstantsWhoseImageFailedToLoad() {
+        var cache = cache(1 << 20);
+        assertTrue(cache.get(Piece.QUEEN, 10).isEmpty());
+        assertEquals(0, cache.getMemoryBytes());
+        assertTrue(cache.get(Piece.QUEEN).isEmpty());
+        assertTrue(cache.get(Piece.QUEEN, 20).isEmpty());
+        assertEquals(1, loaded.size());
+    }
+
+    @Test
+    void rejectNonPositiveLimits() {
+        assertThrows(IllegalArgumentException.class, () -> cache(0));
+    }
+}